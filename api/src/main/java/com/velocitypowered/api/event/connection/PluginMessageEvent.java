@@ -9,6 +9,7 @@ import com.velocitypowered.api.proxy.ServerConnection;
 import com.velocitypowered.api.proxy.messages.ChannelIdentifier;
 import com.velocitypowered.api.proxy.messages.ChannelMessageSink;
 import com.velocitypowered.api.proxy.messages.ChannelMessageSource;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -20,7 +21,7 @@ public final class PluginMessageEvent implements ResultedEvent<PluginMessageEven
   private final ChannelMessageSource source;
   private final ChannelMessageSink target;
   private final ChannelIdentifier identifier;
-  private final byte[] data;
+  private final ByteBuffer data;
   private ForwardResult result;
 
   /**
@@ -33,10 +34,24 @@ public final class PluginMessageEvent implements ResultedEvent<PluginMessageEven
    */
   public PluginMessageEvent(ChannelMessageSource source, ChannelMessageSink target,
       ChannelIdentifier identifier, byte[] data) {
+    this(source, target, identifier, ByteBuffer.wrap(Preconditions.checkNotNull(data, "data")));
+  }
+
+  /**
+   * Creates a new instance without copying the payload. The contents of {@code data} between its
+   * position and limit must not change while the event is being fired.
+   *
+   * @param source the source of the plugin message
+   * @param target the destination of the plugin message
+   * @param identifier the channel for this plugin message
+   * @param data the payload of the plugin message
+   */
+  public PluginMessageEvent(ChannelMessageSource source, ChannelMessageSink target,
+      ChannelIdentifier identifier, ByteBuffer data) {
     this.source = Preconditions.checkNotNull(source, "source");
     this.target = Preconditions.checkNotNull(target, "target");
     this.identifier = Preconditions.checkNotNull(identifier, "identifier");
-    this.data = Preconditions.checkNotNull(data, "data");
+    this.data = Preconditions.checkNotNull(data, "data").asReadOnlyBuffer();
     this.result = ForwardResult.forward();
   }
 
@@ -62,12 +77,30 @@ public final class PluginMessageEvent implements ResultedEvent<PluginMessageEven
     return identifier;
   }
 
+  /**
+   * Returns a copy of the payload of the plugin message.
+   *
+   * @return a copy of the payload
+   */
   public byte[] getData() {
-    return Arrays.copyOf(data, data.length);
+    byte[] copy = new byte[data.remaining()];
+    data.duplicate().get(copy);
+    return copy;
+  }
+
+  /**
+   * Returns a read-only view of the payload of the plugin message, without copying it. The view
+   * may be backed by memory that is reused once the event has been fired, so it must not be used
+   * after the event handler returns. Use {@link #getData()} to keep the payload around.
+   *
+   * @return a read-only view of the payload
+   */
+  public ByteBuffer dataAsBuffer() {
+    return data.duplicate();
   }
 
   public ByteArrayDataInput dataAsDataStream() {
-    return ByteStreams.newDataInput(data);
+    return ByteStreams.newDataInput(getData());
   }
 
   @Override
@@ -76,7 +109,7 @@ public final class PluginMessageEvent implements ResultedEvent<PluginMessageEven
         + "source=" + source
         + ", target=" + target
         + ", identifier=" + identifier
-        + ", data=" + Arrays.toString(data)
+        + ", data=" + Arrays.toString(getData())
         + ", result=" + result
         + '}';
   }
@@ -22,4 +22,12 @@ public interface PermissionSubject {
    * @return the value the permission is set to
    */
   Tristate getPermissionValue(String permission);
+
+  /**
+   * Discards any permission values the proxy has cached for this subject. Permission plugins
+   * should call this whenever the permissions of the subject change, so that the new values are
+   * used immediately. Does nothing if the proxy does not cache permissions for this subject.
+   */
+  default void invalidatePermissionCache() {
+  }
 }
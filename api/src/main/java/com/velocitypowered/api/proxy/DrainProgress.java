@@ -0,0 +1,48 @@
+package com.velocitypowered.api.proxy;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Represents the progress of draining the proxy. While the proxy is draining, new logins are
+ * refused and status pings are answered with a message telling players to connect again later,
+ * while players who are already connected may keep playing until the deadline. Once the deadline
+ * passes, the remaining players are disconnected.
+ */
+public interface DrainProgress {
+
+  /**
+   * Returns when the remaining players will be disconnected.
+   *
+   * @return the deadline of the drain
+   */
+  Instant getDeadline();
+
+  /**
+   * Returns how many players were connected when the drain started.
+   *
+   * @return the initial number of players
+   */
+  int getInitialPlayerCount();
+
+  /**
+   * Returns how many players are still connected to the proxy.
+   *
+   * @return the remaining number of players
+   */
+  int getRemainingPlayerCount();
+
+  /**
+   * Returns whether every player has left the proxy, or the deadline has passed.
+   *
+   * @return whether the drain is complete
+   */
+  boolean isComplete();
+
+  /**
+   * Returns a future completed once the drain is complete.
+   *
+   * @return a future completed once the drain is complete
+   */
+  CompletableFuture<Void> getCompletion();
+}
@@ -98,6 +98,16 @@ public interface Player extends CommandSource, InboundConnection, ChannelMessage
    */
   ConnectionRequestBuilder createConnectionRequest(RegisteredServer server);
 
+  /**
+   * Starts connecting to the specified server ahead of time, so that a later connection request
+   * to the server completes faster. Only the network connection is opened; the player does not
+   * leave their current server. The prepared connection is closed if it is not used within a few
+   * seconds, or if a connection to another server is prepared.
+   *
+   * @param server the server the player will likely connect to
+   */
+  void prepareConnection(RegisteredServer server);
+
   /**
    * Gets the player's profile properties.
    *
@@ -14,6 +14,7 @@ import com.velocitypowered.api.util.bossbar.BossBar;
 import com.velocitypowered.api.util.bossbar.BossBarColor;
 import com.velocitypowered.api.util.bossbar.BossBarOverlay;
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
@@ -178,6 +179,24 @@ public interface ProxyServer {
    */
   ProxyVersion getVersion();
 
+  /**
+   * Starts draining the proxy, for example ahead of a restart. New logins are refused, while
+   * players who are already connected may stay until the {@code timeout} elapses, at which point
+   * they are disconnected.
+   *
+   * @param timeout how long connected players may stay on the proxy
+   * @return the progress of the drain
+   * @throws IllegalStateException if the proxy is already draining
+   */
+  DrainProgress drain(Duration timeout);
+
+  /**
+   * Returns the progress of the drain, if the proxy is draining or has been drained.
+   *
+   * @return the progress of the drain, if any
+   */
+  Optional<DrainProgress> getDrainProgress();
+
   /**
    * Creates a new {@link BossBar}.
    *
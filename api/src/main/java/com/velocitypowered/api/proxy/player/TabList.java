@@ -1,8 +1,10 @@
 package com.velocitypowered.api.proxy.player;
 
+import com.google.common.collect.ImmutableList;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.util.GameProfile;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import net.kyori.text.Component;
@@ -33,6 +35,19 @@ public interface TabList {
    */
   void addEntry(TabListEntry entry);
 
+  /**
+   * Adds all the specified {@link TabListEntry}s to the {@link Player}'s tab list. This is
+   * preferred over calling {@link #addEntry(TabListEntry)} for each entry, as it allows the
+   * entries to be sent to the player together.
+   *
+   * @param entries the entries to add to the tab list
+   */
+  default void addEntries(Collection<TabListEntry> entries) {
+    for (TabListEntry entry : entries) {
+      addEntry(entry);
+    }
+  }
+
   /**
    * Removes the {@link TabListEntry} from the tab list with the {@link GameProfile} identified with
    * the specified {@link UUID}.
@@ -43,6 +58,37 @@ public interface TabList {
    */
   Optional<TabListEntry> removeEntry(UUID uuid);
 
+  /**
+   * Removes all the {@link TabListEntry}s identified by the specified {@link UUID}s from the tab
+   * list. This is preferred over calling {@link #removeEntry(UUID)} for each entry, as it allows
+   * the removals to be sent to the player together.
+   *
+   * @param uuids the UUIDs of the entries to remove
+   * @return the entries that were removed
+   */
+  default Collection<TabListEntry> removeEntries(Collection<UUID> uuids) {
+    ImmutableList.Builder<TabListEntry> removed = ImmutableList.builder();
+    for (UUID uuid : uuids) {
+      removeEntry(uuid).ifPresent(removed::add);
+    }
+    return removed.build();
+  }
+
+  /**
+   * Updates the latency of several {@link TabListEntry}s at once. Entries that are not in the tab
+   * list are ignored.
+   *
+   * @param latencies the new latency for each entry, keyed by the UUID of the entry
+   */
+  default void updateLatencies(Map<UUID, Integer> latencies) {
+    for (TabListEntry entry : getEntries()) {
+      Integer latency = latencies.get(entry.getProfile().getId());
+      if (latency != null) {
+        entry.setLatency(latency);
+      }
+    }
+  }
+
   /**
    * Determines if the specified entry exists in the tab list.
    *
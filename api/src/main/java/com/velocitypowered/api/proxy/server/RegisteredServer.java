@@ -30,4 +30,11 @@ public interface RegisteredServer extends ChannelMessageSink {
    * @return the server ping result from the server
    */
   CompletableFuture<ServerPing> ping();
+
+  /**
+   * Returns the health of this server, as observed by the proxy.
+   *
+   * @return the health of this server
+   */
+  ServerHealth getHealth();
 }
@@ -0,0 +1,56 @@
+package com.velocitypowered.api.proxy.server;
+
+/**
+ * Represents the health of a {@link RegisteredServer}, as observed by the proxy when connecting
+ * players to it and pinging it.
+ */
+public interface ServerHealth {
+
+  /**
+   * Returns the current state of the server.
+   *
+   * @return the state of the server
+   */
+  State getState();
+
+  /**
+   * Returns the fraction of recent connection attempts to the server that succeeded, between
+   * {@code 0} and {@code 1}. If no attempts have been made yet, this returns {@code 1}.
+   *
+   * @return the recent connection success rate
+   */
+  double getConnectSuccessRate();
+
+  /**
+   * Returns the average time it took for recent logins to the server to complete.
+   *
+   * @return the average login latency in milliseconds, or {@code -1} if no player has logged in
+   */
+  long getAverageLoginLatency();
+
+  /**
+   * Returns how many connection attempts to the server have failed in a row.
+   *
+   * @return the number of consecutive failures
+   */
+  int getConsecutiveFailures();
+
+  /**
+   * The state of a server.
+   */
+  enum State {
+    /**
+     * The server is accepting connections.
+     */
+    HEALTHY,
+    /**
+     * The server failed too many connection attempts in a row. The proxy will not try to connect
+     * players to it until it has had some time to recover.
+     */
+    UNAVAILABLE,
+    /**
+     * The server was unavailable, and the proxy is checking whether it has recovered.
+     */
+    RECOVERING
+  }
+}
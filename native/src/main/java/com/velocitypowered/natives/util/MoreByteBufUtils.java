@@ -12,7 +12,8 @@ public class MoreByteBufUtils {
   /**
    * Ensures the {@code buf} will work with the specified {@code nativeStuff}. After this function
    * is called, you should decrement the reference count on the {@code buf} with
-   * {@link ByteBuf#release()}.
+   * {@link ByteBuf#release()}. Read-only buffers are always copied, as natives may process the
+   * buffer in place.
    *
    * @param alloc the {@link ByteBufAllocator} to use
    * @param nativeStuff the native we are working with
@@ -31,6 +32,11 @@ public class MoreByteBufUtils {
   }
 
   private static boolean isCompatible(Native nativeStuff, ByteBuf buf) {
+    if (buf.isReadOnly()) {
+      // The contents of this buffer may be shared, so it can't be modified in place.
+      return false;
+    }
+
     BufferPreference preferred = nativeStuff.preferredBufferType();
     switch (preferred) {
       case DIRECT_PREFERRED:
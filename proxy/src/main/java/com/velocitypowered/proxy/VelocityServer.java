@@ -5,11 +5,11 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.velocitypowered.api.event.EventManager;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
 import com.velocitypowered.api.event.proxy.ProxyReloadEvent;
 import com.velocitypowered.api.plugin.PluginContainer;
 import com.velocitypowered.api.plugin.PluginManager;
+import com.velocitypowered.api.proxy.DrainProgress;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
@@ -26,19 +26,29 @@ import com.velocitypowered.proxy.command.ShutdownCommand;
 import com.velocitypowered.proxy.command.VelocityCommand;
 import com.velocitypowered.proxy.command.VelocityCommandManager;
 import com.velocitypowered.proxy.config.AnnotatedConfig;
+import com.velocitypowered.proxy.config.ConfigurationDiff;
 import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.connection.client.SessionService;
 import com.velocitypowered.proxy.console.VelocityConsole;
+import com.velocitypowered.proxy.network.BackendAddressResolver;
 import com.velocitypowered.proxy.network.ConnectionManager;
+import com.velocitypowered.proxy.network.ConnectionMemoryReport;
+import com.velocitypowered.proxy.network.PacketBroadcaster;
 import com.velocitypowered.proxy.plugin.VelocityEventManager;
 import com.velocitypowered.proxy.plugin.VelocityPluginManager;
+import com.velocitypowered.proxy.protocol.netty.PacketRateLimiter;
 import com.velocitypowered.proxy.protocol.packet.Chat;
 import com.velocitypowered.proxy.protocol.util.FaviconSerializer;
 import com.velocitypowered.proxy.protocol.util.GameProfileSerializer;
 import com.velocitypowered.proxy.scheduler.VelocityScheduler;
+import com.velocitypowered.proxy.server.PlayerEvacuation;
+import com.velocitypowered.proxy.server.ServerBalancer;
 import com.velocitypowered.proxy.server.ServerMap;
+import com.velocitypowered.proxy.server.VelocityDrainProgress;
 import com.velocitypowered.proxy.util.AddressUtil;
 import com.velocitypowered.proxy.util.EncryptionUtils;
+import com.velocitypowered.proxy.util.StartupTrace;
 import com.velocitypowered.proxy.util.VelocityChannelRegistrar;
 import com.velocitypowered.proxy.util.bossbar.VelocityBossBar;
 import com.velocitypowered.proxy.util.ratelimit.AddressWhitelist;
@@ -57,6 +67,7 @@ import java.security.KeyPair;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -64,8 +75,9 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -87,6 +99,7 @@ import org.checkerframework.checker.nullness.qual.RequiresNonNull;
 public class VelocityServer implements ProxyServer {
 
   private static final Logger logger = LogManager.getLogger(VelocityServer.class);
+  private static final int RELOAD_EVACUATION_CONCURRENCY = 16;
   public static final Gson GSON = GsonComponentSerializer.populate(new GsonBuilder())
       .registerTypeHierarchyAdapter(Favicon.class, new FaviconSerializer())
       .registerTypeHierarchyAdapter(GameProfile.class, new GameProfileSerializer())
@@ -94,8 +107,8 @@ public class VelocityServer implements ProxyServer {
 
   private final ConnectionManager cm;
   private final ProxyOptions options;
-  private @MonotonicNonNull VelocityConfiguration configuration;
-  private @MonotonicNonNull KeyPair serverKeyPair;
+  private volatile @MonotonicNonNull VelocityConfiguration configuration;
+  private @MonotonicNonNull CompletableFuture<KeyPair> serverKeyPair;
   private final ServerMap servers;
   private final VelocityCommandManager commandManager;
   private final AtomicBoolean shutdownInProgress = new AtomicBoolean(false);
@@ -111,6 +124,14 @@ public class VelocityServer implements ProxyServer {
   private final VelocityEventManager eventManager;
   private final VelocityScheduler scheduler;
   private final VelocityChannelRegistrar channelRegistrar = new VelocityChannelRegistrar();
+  private final PacketBroadcaster packetBroadcaster = new PacketBroadcaster(this);
+  private final ServerBalancer serverBalancer = new ServerBalancer(this);
+  private final SessionService sessionService;
+  private final StartupTrace startupTrace = new StartupTrace();
+  private final PacketRateLimiter.Statistics packetRateLimitStatistics =
+      new PacketRateLimiter.Statistics();
+  private @Nullable ScheduledFuture<?> healthCheckTask;
+  private volatile @Nullable VelocityDrainProgress drainProgress;
 
   VelocityServer(final ProxyOptions options) {
     pluginManager = new VelocityPluginManager(this);
@@ -118,13 +139,14 @@ public class VelocityServer implements ProxyServer {
     commandManager = new VelocityCommandManager(eventManager);
     scheduler = new VelocityScheduler(pluginManager);
     console = new VelocityConsole(this);
-    cm = new ConnectionManager(this);
+    cm = startupTrace.time("event loops", () -> new ConnectionManager(this));
+    sessionService = new SessionService(this, cm::getSessionHttpClient);
     servers = new ServerMap(this);
     this.options = options;
   }
 
   public KeyPair getServerKeyPair() {
-    return ensureInitialized(serverKeyPair);
+    return ensureInitialized(serverKeyPair).join();
   }
 
   @Override
@@ -157,7 +179,8 @@ public class VelocityServer implements ProxyServer {
       @NonNull BossBarColor color,
       @NonNull BossBarOverlay overlay,
       float progress) {
-    return new VelocityBossBar(title, color, overlay, progress);
+    return new VelocityBossBar(packetBroadcaster, cm.getWorkerGroup().next(), title, color,
+        overlay, progress);
   }
 
   @Override
@@ -173,18 +196,26 @@ public class VelocityServer implements ProxyServer {
       "console", "cm", "configuration"})
   void start() {
     logger.info("Booting up {} {}...", getVersion().getName(), getVersion().getVersion());
-    console.setupStreams();
+    startupTrace.time("console", console::setupStreams);
 
-    serverKeyPair = EncryptionUtils.createRsaKeyPair(1024);
-
-    cm.logChannelInformation();
+    // Neither the key pair nor the natives depend on the configuration or on plugins, so prepare
+    // them in the background. They are only needed once we accept connections.
+    serverKeyPair = startupTrace.beginAsync("key pair",
+        () -> EncryptionUtils.createRsaKeyPair(1024), ForkJoinPool.commonPool());
+    final CompletableFuture<Void> natives = startupTrace.beginAsync("natives", () -> {
+      cm.logChannelInformation();
+      return null;
+    }, ForkJoinPool.commonPool());
 
     // Initialize commands first
-    commandManager.register("velocity", new VelocityCommand(this));
-    commandManager.register("server", new ServerCommand(this));
-    commandManager.register("shutdown", new ShutdownCommand(this),"end");
-    commandManager.register("glist", new GlistCommand(this));
-
+    startupTrace.time("commands", () -> {
+      commandManager.register("velocity", new VelocityCommand(this));
+      commandManager.register("server", new ServerCommand(this));
+      commandManager.register("shutdown", new ShutdownCommand(this),"end");
+      commandManager.register("glist", new GlistCommand(this));
+    });
+
+    StartupTrace.Phase configurationPhase = startupTrace.begin("configuration");
     try {
       Path configPath = Paths.get("velocity.toml");
       configuration = VelocityConfiguration.read(configPath);
@@ -203,6 +234,7 @@ public class VelocityServer implements ProxyServer {
       LogManager.shutdown();
       System.exit(1);
     }
+    configurationPhase.end();
 
     for (Map.Entry<String, String> entry : configuration.getServers().entrySet()) {
       servers.register(new ServerInfo(entry.getKey(), AddressUtil.parseAddress(entry.getValue())));
@@ -211,28 +243,58 @@ public class VelocityServer implements ProxyServer {
     ipAttemptLimiter = Ratelimiters.createWithMilliseconds(configuration.getLoginRatelimit());
     ipStatusLimiter = Ratelimiters.createWithMilliseconds(configuration.getStatusRatelimit());
     addressWhitelist = new AddressWhitelist(Duration.ofHours(3));
-    loadPlugins();
+    startupTrace.time("plugins", this::loadPlugins);
 
     // Go ahead and fire the proxy initialization event. We block since plugins should have a chance
     // to fully initialize before we accept any connections to the server.
-    eventManager.fire(new ProxyInitializeEvent()).join();
+    startupTrace.time("initialize event", () -> eventManager.fire(new ProxyInitializeEvent())
+        .join());
 
     // init console permissions after plugins are loaded
     console.setupPermissions();
 
-    final Integer port = this.options.getPort();
-    if (port != null) {
-      logger.debug("Overriding bind port to {} from command line option", port);
-      this.cm.bind(new InetSocketAddress(configuration.getBind().getHostString(), port));
-    } else {
-      this.cm.bind(configuration.getBind());
-    }
+    startupTrace.time("bind", () -> {
+      // Logins need the key pair, and connections the natives.
+      CompletableFuture.allOf(serverKeyPair, natives).join();
 
-    if (configuration.isQueryEnabled()) {
-      this.cm.queryBind(configuration.getBind().getHostString(), configuration.getQueryPort());
+      final Integer port = this.options.getPort();
+      if (port != null) {
+        logger.debug("Overriding bind port to {} from command line option", port);
+        this.cm.bind(new InetSocketAddress(configuration.getBind().getHostString(), port),
+            configuration);
+      } else {
+        this.cm.bind(configuration.getBind(), configuration);
+      }
+
+      if (configuration.isQueryEnabled()) {
+        this.cm.queryBind(configuration.getBind().getHostString(), configuration.getQueryPort());
+      }
+    });
+
+    scheduleHealthChecks(configuration.getServerHealthCheckInterval());
+
+    startupTrace.time("metrics",
+        () -> Metrics.VelocityMetrics.startMetrics(this, configuration.getMetrics()));
+
+    startupTrace.report();
+  }
+
+  private synchronized void scheduleHealthChecks(int interval) {
+    if (healthCheckTask != null) {
+      healthCheckTask.cancel(false);
+      healthCheckTask = null;
+    }
+    if (interval > 0) {
+      healthCheckTask = cm.getWorkerGroup().scheduleAtFixedRate(this::checkServerHealth, interval,
+          interval, TimeUnit.MILLISECONDS);
     }
+  }
 
-    Metrics.VelocityMetrics.startMetrics(this, configuration.getMetrics());
+  private void checkServerHealth() {
+    // The ping results are recorded in each server's health.
+    for (RegisteredServer registeredServer : servers.getAllServers()) {
+      registeredServer.ping();
+    }
   }
 
   @RequiresNonNull({"pluginManager", "eventManager"})
@@ -277,6 +339,18 @@ public class VelocityServer implements ProxyServer {
     return this.cm.createWorker(group);
   }
 
+  public PacketRateLimiter.Statistics getPacketRateLimitStatistics() {
+    return packetRateLimitStatistics;
+  }
+
+  public ConnectionMemoryReport getConnectionMemoryReport() {
+    return this.cm.createMemoryReport();
+  }
+
+  public BackendAddressResolver getBackendAddressResolver() {
+    return this.cm.getBackendAddressResolver();
+  }
+
   public ChannelInitializer<Channel> getBackendChannelInitializer() {
     return this.cm.backendChannelInitializer.get();
   }
@@ -299,76 +373,99 @@ public class VelocityServer implements ProxyServer {
       return false;
     }
 
-    // Re-register servers. If a server is being replaced, make sure to note what players need to
-    // move back to a fallback server.
+    VelocityConfiguration oldConfiguration = ensureInitialized(this.configuration);
+    ConfigurationDiff diff = ConfigurationDiff.compute(oldConfiguration, newConfiguration);
+    logger.debug("Configuration changes: {}", diff);
+    Map<String, Long> timings = new LinkedHashMap<>();
+
+    // If we have a new bind address, bind to it. The listeners are updated before anything else,
+    // so that nothing has changed yet if binding throws. A bind that fails later on, once the
+    // listener is actually opened, is only logged.
+    if (diff.isBindChanged()) {
+      long start = System.nanoTime();
+      this.cm.bind(newConfiguration.getBind(), newConfiguration);
+      this.cm.close(oldConfiguration.getBind());
+      timings.put("bind", System.nanoTime() - start);
+    }
+
+    if (diff.isQueryChanged()) {
+      long start = System.nanoTime();
+      if (oldConfiguration.isQueryEnabled()) {
+        this.cm.close(new InetSocketAddress(
+            oldConfiguration.getBind().getHostString(), oldConfiguration.getQueryPort()));
+      }
+      if (newConfiguration.isQueryEnabled()) {
+        this.cm.queryBind(newConfiguration.getBind().getHostString(),
+            newConfiguration.getQueryPort());
+      }
+      timings.put("query", System.nanoTime() - start);
+    }
+
+    // Register new servers, and replace servers whose address changed. Players on a replaced
+    // server must move to a fallback server.
     Collection<ConnectedPlayer> evacuate = new ArrayList<>();
-    for (Map.Entry<String, String> entry : newConfiguration.getServers().entrySet()) {
-      ServerInfo newInfo =
-          new ServerInfo(entry.getKey(), AddressUtil.parseAddress(entry.getValue()));
-      Optional<RegisteredServer> rs = servers.getServer(entry.getKey());
-      if (!rs.isPresent()) {
-        servers.register(newInfo);
-      } else if (!rs.get().getServerInfo().equals(newInfo)) {
-        for (Player player : rs.get().getPlayersConnected()) {
+    if (!diff.getAddedServers().isEmpty() || !diff.getChangedServers().isEmpty()) {
+      long start = System.nanoTime();
+      for (Map.Entry<String, String> entry : diff.getAddedServers().entrySet()) {
+        servers.register(new ServerInfo(entry.getKey(),
+            AddressUtil.parseAddress(entry.getValue())));
+      }
+      for (Map.Entry<String, String> entry : diff.getChangedServers().entrySet()) {
+        RegisteredServer replaced = servers.replace(new ServerInfo(entry.getKey(),
+            AddressUtil.parseAddress(entry.getValue())));
+        for (Player player : replaced.getPlayersConnected()) {
           if (!(player instanceof ConnectedPlayer)) {
             throw new IllegalStateException("ConnectedPlayer not found for player " + player
-                + " in server " + rs.get().getServerInfo().getName());
+                + " in server " + replaced.getServerInfo().getName());
           }
           evacuate.add((ConnectedPlayer) player);
         }
-        servers.unregister(rs.get().getServerInfo());
-        servers.register(newInfo);
       }
+      timings.put("servers", System.nanoTime() - start);
     }
 
-    // If we had any players to evacuate, let's move them now. Wait until they are all moved off.
-    if (!evacuate.isEmpty()) {
-      CountDownLatch latch = new CountDownLatch(evacuate.size());
-      for (ConnectedPlayer player : evacuate) {
-        Optional<RegisteredServer> next = player.getNextServerToTry();
-        if (next.isPresent()) {
-          player.createConnectionRequest(next.get()).connectWithIndication()
-              .whenComplete((success, ex) -> {
-                if (ex != null || success == null || !success) {
-                  player.disconnect(TextComponent.of("Your server has been changed, but we could "
-                      + "not move you to any fallback servers."));
-                }
-                latch.countDown();
-              });
-        } else {
-          latch.countDown();
-          player.disconnect(TextComponent.of("Your server has been changed, but we could "
-              + "not move you to any fallback servers."));
-        }
+    // Carry over the recent attempts, so reloading doesn't let rate-limited clients through.
+    if (diff.isLoginRatelimitChanged() || diff.isStatusRatelimitChanged()) {
+      long start = System.nanoTime();
+      if (diff.isLoginRatelimitChanged()) {
+        ipAttemptLimiter = Ratelimiters.migrateWithMilliseconds(ensureInitialized(ipAttemptLimiter),
+            newConfiguration.getLoginRatelimit());
       }
-      try {
-        latch.await();
-      } catch (InterruptedException e) {
-        logger.error("Interrupted whilst moving players", e);
-        Thread.currentThread().interrupt();
+      if (diff.isStatusRatelimitChanged()) {
+        ipStatusLimiter = Ratelimiters.migrateWithMilliseconds(ensureInitialized(ipStatusLimiter),
+            newConfiguration.getStatusRatelimit());
       }
+      timings.put("ratelimits", System.nanoTime() - start);
     }
 
-    // If we have a new bind address, bind to it
-    if (!configuration.getBind().equals(newConfiguration.getBind())) {
-      this.cm.bind(newConfiguration.getBind());
-      this.cm.close(configuration.getBind());
+    if (diff.isHealthCheckIntervalChanged()) {
+      long start = System.nanoTime();
+      scheduleHealthChecks(newConfiguration.getServerHealthCheckInterval());
+      timings.put("health-checks", System.nanoTime() - start);
     }
 
-    if (configuration.isQueryEnabled() && (!newConfiguration.isQueryEnabled()
-        || newConfiguration.getQueryPort() != configuration.getQueryPort())) {
-      this.cm.close(new InetSocketAddress(
-          configuration.getBind().getHostString(), configuration.getQueryPort()));
+    this.configuration = newConfiguration;
+
+    if (timings.isEmpty()) {
+      logger.info("Reloaded the configuration, no listeners or servers had to be updated");
+    } else {
+      logger.info("Reloaded the configuration, updated {}", timings.entrySet().stream()
+          .map(e -> String.format(Locale.ROOT, "%s (%.2f ms)", e.getKey(), e.getValue() / 1e6))
+          .collect(Collectors.joining(", ")));
     }
 
-    if (newConfiguration.isQueryEnabled()) {
-      this.cm.queryBind(newConfiguration.getBind().getHostString(),
-          newConfiguration.getQueryPort());
+    // Move players off replaced servers in the background, now that the new try list is in place.
+    if (!evacuate.isEmpty()) {
+      PlayerEvacuation evacuation = new PlayerEvacuation(evacuate, RELOAD_EVACUATION_CONCURRENCY,
+          TextComponent.of("Your server has been changed, but we could "
+              + "not move you to any fallback servers."));
+      long start = System.nanoTime();
+      evacuation.start().thenRun(() -> logger.info(
+          "Moved {} players off changed servers in {} ms, {} had to be disconnected",
+          evacuation.getMoved(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+          evacuation.getDisconnected()));
     }
 
-    ipAttemptLimiter = Ratelimiters.createWithMilliseconds(newConfiguration.getLoginRatelimit());
-    ipStatusLimiter = Ratelimiters.createWithMilliseconds(newConfiguration.getStatusRatelimit());
-    this.configuration = newConfiguration;
     eventManager.fireAndForget(new ProxyReloadEvent());
     return true;
   }
@@ -449,6 +546,18 @@ public class VelocityServer implements ProxyServer {
     shutdown(explicitExit, TextComponent.of("Proxy shutting down."));
   }
 
+  public PacketBroadcaster getPacketBroadcaster() {
+    return packetBroadcaster;
+  }
+
+  public ServerBalancer getServerBalancer() {
+    return serverBalancer;
+  }
+
+  public SessionService getSessionService() {
+    return sessionService;
+  }
+
   public AsyncHttpClient getAsyncHttpClient() {
     return ensureInitialized(cm).getHttpClient();
   }
@@ -537,10 +646,7 @@ public class VelocityServer implements ProxyServer {
   @Override
   public void broadcast(Component component) {
     Preconditions.checkNotNull(component, "component");
-    Chat chat = Chat.createClientbound(component);
-    for (ConnectedPlayer player : connectionsByUuid.values()) {
-      player.getConnection().write(chat);
-    }
+    packetBroadcaster.broadcast(connectionsByUuid.values(), Chat.createClientbound(component));
   }
 
   @Override
@@ -561,6 +667,30 @@ public class VelocityServer implements ProxyServer {
             .collect(Collectors.toList());
   }
 
+  @Override
+  public synchronized DrainProgress drain(Duration timeout) {
+    Preconditions.checkNotNull(timeout, "timeout");
+    Preconditions.checkState(drainProgress == null, "The proxy is already draining");
+    VelocityDrainProgress progress = new VelocityDrainProgress(this::getAllPlayers, timeout);
+    this.drainProgress = progress;
+    progress.start(cm.getWorkerGroup());
+    return progress;
+  }
+
+  @Override
+  public Optional<DrainProgress> getDrainProgress() {
+    return Optional.ofNullable(drainProgress);
+  }
+
+  /**
+   * Determines whether the proxy is draining, and should refuse new logins.
+   *
+   * @return whether the proxy is draining
+   */
+  public boolean isDraining() {
+    return drainProgress != null;
+  }
+
   @Override
   public Collection<Player> getAllPlayers() {
     return ImmutableList.copyOf(connectionsByUuid.values());
@@ -602,7 +732,7 @@ public class VelocityServer implements ProxyServer {
   }
 
   @Override
-  public EventManager getEventManager() {
+  public VelocityEventManager getEventManager() {
     return eventManager;
   }
 
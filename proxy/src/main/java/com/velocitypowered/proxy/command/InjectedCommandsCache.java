@@ -0,0 +1,91 @@
+package com.velocitypowered.proxy.command;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.proxy.protocol.packet.AvailableCommands.EncodedLiterals;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Caches the encoded proxy commands that are injected into the command graph sent to players.
+ * Players who may use the same set of commands share the same encoded nodes, so the nodes only
+ * have to be built once for each distinct set of permissions.
+ */
+class InjectedCommandsCache {
+
+  private static final int MAXIMUM_SIZE = 256;
+
+  private final VelocityCommandManager manager;
+  private final AtomicLong version = new AtomicLong();
+  private final AtomicReference<@Nullable Snapshot> snapshot = new AtomicReference<>();
+
+  InjectedCommandsCache(VelocityCommandManager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * Returns the encoded commands the {@code source} has permission to use.
+   *
+   * @param source the source to get commands for
+   * @return the encoded commands
+   */
+  EncodedLiterals get(CommandSource source) {
+    Snapshot current = snapshot.get();
+    long currentVersion = version.get();
+    if (current == null || current.version != currentVersion) {
+      // The version is read before the commands, so a snapshot built while a command is being
+      // registered is tagged as outdated and never used once invalidate() returns.
+      Snapshot built = new Snapshot(currentVersion,
+          ImmutableList.sortedCopyOf(manager.getAllRegisteredCommands()));
+      snapshot.compareAndSet(current, built);
+      current = built;
+    }
+
+    BitSet fingerprint = new BitSet(current.aliases.size());
+    for (int i = 0; i < current.aliases.size(); i++) {
+      if (manager.hasPermission(source, current.aliases.get(i))) {
+        fingerprint.set(i);
+      }
+    }
+
+    EncodedLiterals literals = current.encoded.getIfPresent(fingerprint);
+    if (literals == null) {
+      List<String> allowed = new ArrayList<>(fingerprint.cardinality());
+      for (int i = fingerprint.nextSetBit(0); i >= 0; i = fingerprint.nextSetBit(i + 1)) {
+        allowed.add(current.aliases.get(i));
+      }
+      literals = new EncodedLiterals(allowed);
+      current.encoded.put(fingerprint, literals);
+    }
+    return literals;
+  }
+
+  /**
+   * Discards all cached commands. This must be called whenever a command is registered or
+   * unregistered.
+   */
+  void invalidate() {
+    version.incrementAndGet();
+    snapshot.set(null);
+  }
+
+  private static class Snapshot {
+
+    private final long version;
+    private final List<String> aliases;
+    private final Cache<BitSet, EncodedLiterals> encoded = CacheBuilder.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .build();
+
+    private Snapshot(long version, List<String> aliases) {
+      this.version = version;
+      this.aliases = aliases;
+    }
+  }
+}
@@ -8,13 +8,24 @@ import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.permission.Tristate;
 import com.velocitypowered.api.plugin.PluginContainer;
 import com.velocitypowered.api.plugin.PluginDescription;
+import com.velocitypowered.api.proxy.DrainProgress;
 import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.util.ProxyVersion;
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.connection.client.SessionService;
+import com.velocitypowered.proxy.network.ConnectionMemoryReport;
+import com.velocitypowered.proxy.protocol.netty.PacketRateLimiter;
+import com.velocitypowered.proxy.server.ServerAddressCache;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import net.kyori.text.TextComponent;
 import net.kyori.text.event.ClickEvent;
@@ -38,6 +49,9 @@ public class VelocityCommand implements Command {
         .put("version", new Info(server))
         .put("plugins", new Plugins(server))
         .put("reload", new Reload(server))
+        .put("drain", new Drain(server))
+        .put("memory", new Memory(server))
+        .put("stats", new Stats(server))
         .build();
   }
 
@@ -141,6 +155,178 @@ public class VelocityCommand implements Command {
     }
   }
 
+  private static class Drain implements Command {
+
+    private final VelocityServer server;
+
+    private Drain(VelocityServer server) {
+      this.server = server;
+    }
+
+    @Override
+    public void execute(CommandSource source, String @NonNull [] args) {
+      if (args.length == 0) {
+        Optional<DrainProgress> progress = server.getDrainProgress();
+        if (progress.isPresent()) {
+          sendProgress(source, progress.get());
+        } else {
+          source.sendMessage(TextComponent.of("/velocity drain <seconds>", TextColor.RED));
+        }
+        return;
+      }
+
+      if (args.length > 1) {
+        source.sendMessage(TextComponent.of("/velocity drain <seconds>", TextColor.RED));
+        return;
+      }
+
+      long seconds;
+      try {
+        seconds = Long.parseLong(args[0]);
+      } catch (NumberFormatException e) {
+        seconds = -1;
+      }
+      if (seconds < 0) {
+        source.sendMessage(TextComponent.of("Invalid number of seconds " + args[0],
+            TextColor.RED));
+        return;
+      }
+
+      if (server.isDraining()) {
+        source.sendMessage(TextComponent.of("The proxy is already draining.", TextColor.RED));
+        return;
+      }
+      sendProgress(source, server.drain(Duration.ofSeconds(seconds)));
+    }
+
+    private static void sendProgress(CommandSource source, DrainProgress progress) {
+      if (progress.isComplete()) {
+        source.sendMessage(TextComponent.of("The proxy has been drained.", TextColor.GREEN));
+        return;
+      }
+      long secondsLeft = Math.max(0,
+          Duration.between(Instant.now(), progress.getDeadline()).getSeconds());
+      source.sendMessage(TextComponent.of("Draining the proxy: "
+          + progress.getRemainingPlayerCount() + " of " + progress.getInitialPlayerCount()
+          + " players remaining, " + secondsLeft + " seconds left.", TextColor.YELLOW));
+    }
+
+    @Override
+    public boolean hasPermission(CommandSource source, String @NonNull [] args) {
+      return source.getPermissionValue("velocity.command.drain") == Tristate.TRUE;
+    }
+  }
+
+  private static class Memory implements Command {
+
+    private final VelocityServer server;
+
+    private Memory(VelocityServer server) {
+      this.server = server;
+    }
+
+    @Override
+    public void execute(CommandSource source, String @NonNull [] args) {
+      if (args.length != 0) {
+        source.sendMessage(TextComponent.of("/velocity memory", TextColor.RED));
+        return;
+      }
+
+      ConnectionMemoryReport report = server.getConnectionMemoryReport();
+      source.sendMessage(TextComponent.of("Client connections: " + report.getConnections()
+          + " (" + report.getPreLoginConnections() + " not logged in)", TextColor.YELLOW));
+      source.sendMessage(TextComponent.of("Incomplete frames: "
+          + formatBytes(report.getBufferedBytes()), TextColor.YELLOW));
+      source.sendMessage(TextComponent.of("Waiting to be sent: "
+          + formatBytes(report.getPendingWriteBytes()) + ", "
+          + report.getUnwritableConnections() + " connections can't keep up (longest for "
+          + report.getLongestUnwritableTime().getSeconds() + " seconds, "
+          + report.getTotalUnwritableTime().getSeconds() + " seconds in total)",
+          TextColor.YELLOW));
+      source.sendMessage(TextComponent.of("Buffers: " + formatBytes(report.getUsedHeapMemory())
+          + " heap, " + formatBytes(report.getUsedDirectMemory()) + " direct, "
+          + formatBytes(report.getBufferMemoryPerConnection())
+          + " per client (including its backend connection)",
+          TextColor.YELLOW));
+    }
+
+    private static String formatBytes(long bytes) {
+      if (bytes < 0) {
+        return "unknown";
+      }
+      if (bytes < 1024) {
+        return bytes + " B";
+      }
+      if (bytes < 1024 * 1024) {
+        return String.format(Locale.ROOT, "%.1f KiB", bytes / 1024.0);
+      }
+      return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    @Override
+    public boolean hasPermission(CommandSource source, String @NonNull [] args) {
+      return source.getPermissionValue("velocity.command.memory") == Tristate.TRUE;
+    }
+  }
+
+  private static class Stats implements Command {
+
+    private final VelocityServer server;
+
+    private Stats(VelocityServer server) {
+      this.server = server;
+    }
+
+    @Override
+    public void execute(CommandSource source, String @NonNull [] args) {
+      if (args.length != 0) {
+        source.sendMessage(TextComponent.of("/velocity stats", TextColor.RED));
+        return;
+      }
+
+      SessionService sessions = server.getSessionService();
+      source.sendMessage(TextComponent.of("Session server: "
+          + sessions.getAuthenticatedCount() + " authenticated, "
+          + sessions.getNotAuthenticatedCount() + " not authenticated, "
+          + sessions.getUnexpectedResponseCount() + " unexpected responses, "
+          + sessions.getFailureCount() + " failed, " + sessions.getCacheHitCount() + " cached, "
+          + "average " + sessions.getAverageLatency() + " ms", TextColor.YELLOW));
+
+      PacketRateLimiter.Statistics rateLimits = server.getPacketRateLimitStatistics();
+      source.sendMessage(TextComponent.of("Packets over the rate limits: "
+          + Arrays.stream(PacketRateLimiter.Category.values())
+              .map(category -> rateLimits.getViolations(category) + " " + category.getName())
+              .collect(Collectors.joining(", ")), TextColor.YELLOW));
+
+      source.sendMessage(TextComponent.of("Backend address lookups:", TextColor.YELLOW));
+      boolean resolvedAny = false;
+      for (RegisteredServer registered : server.getAllServers()) {
+        ServerAddressCache cache = ((VelocityRegisteredServer) registered).getAddressCache();
+        if (cache.getResolutionCount() == 0) {
+          continue;
+        }
+        resolvedAny = true;
+        source.sendMessage(TextComponent.of("  " + registered.getServerInfo().getName()
+            + ": " + cache.getResolutionCount() + " lookups, " + cache.getFailureCount()
+            + " failed, average " + toMillis(cache.getAverageResolutionNanos()) + " ms, last "
+            + toMillis(cache.getLastResolutionNanos()) + " ms", TextColor.YELLOW));
+      }
+      if (!resolvedAny) {
+        source.sendMessage(TextComponent.of("  No backend addresses were looked up.",
+            TextColor.YELLOW));
+      }
+    }
+
+    private static long toMillis(long nanos) {
+      return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public boolean hasPermission(CommandSource source, String @NonNull [] args) {
+      return source.getPermissionValue("velocity.command.stats") == Tristate.TRUE;
+    }
+  }
+
   private static class Info implements Command {
 
     private final ProxyServer server;
@@ -2,7 +2,7 @@ package com.velocitypowered.proxy.command;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
 import com.velocitypowered.api.command.Command;
 import com.velocitypowered.api.command.CommandManager;
 import com.velocitypowered.api.command.CommandSource;
@@ -10,18 +10,23 @@ import com.velocitypowered.api.command.RawCommand;
 import com.velocitypowered.api.event.command.CommandExecuteEvent;
 import com.velocitypowered.api.event.command.CommandExecuteEvent.CommandResult;
 import com.velocitypowered.proxy.plugin.VelocityEventManager;
+import com.velocitypowered.proxy.protocol.packet.AvailableCommands.EncodedLiterals;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 
 public class VelocityCommandManager implements CommandManager {
 
-  private final Map<String, RawCommand> commands = new HashMap<>();
+  // Commands are registered rarely but looked up constantly, so registrations replace the whole
+  // map. Keeping the aliases sorted lets us find all aliases with a given prefix quickly.
+  private volatile ImmutableSortedMap<String, RawCommand> commands = ImmutableSortedMap.of();
   private final VelocityEventManager eventManager;
+  private final InjectedCommandsCache injectedCommands = new InjectedCommandsCache(this);
 
   public VelocityCommandManager(VelocityEventManager eventManager) {
     this.eventManager = eventManager;
@@ -40,20 +45,33 @@ public class VelocityCommandManager implements CommandManager {
     Preconditions.checkNotNull(otherAliases, "otherAliases");
     Preconditions.checkNotNull(command, "executor");
 
-    RawCommand rawCmd = RegularCommandWrapper.wrap(command);
-    this.commands.put(alias.toLowerCase(Locale.ENGLISH), rawCmd);
-
     for (int i = 0, length = otherAliases.length; i < length; i++) {
-      final String alias1 = otherAliases[i];
-      Preconditions.checkNotNull(alias1, "alias at index %s", i + 1);
-      this.commands.put(alias1.toLowerCase(Locale.ENGLISH), rawCmd);
+      Preconditions.checkNotNull(otherAliases[i], "alias at index %s", i + 1);
     }
+
+    RawCommand rawCmd = RegularCommandWrapper.wrap(command);
+    synchronized (this) {
+      TreeMap<String, RawCommand> updated = new TreeMap<>(this.commands);
+      updated.put(alias.toLowerCase(Locale.ENGLISH), rawCmd);
+      for (String otherAlias : otherAliases) {
+        updated.put(otherAlias.toLowerCase(Locale.ENGLISH), rawCmd);
+      }
+      this.commands = ImmutableSortedMap.copyOfSorted(updated);
+    }
+    injectedCommands.invalidate();
   }
 
   @Override
   public void unregister(final String alias) {
     Preconditions.checkNotNull(alias, "name");
-    this.commands.remove(alias.toLowerCase(Locale.ENGLISH));
+    synchronized (this) {
+      TreeMap<String, RawCommand> updated = new TreeMap<>(this.commands);
+      if (updated.remove(alias.toLowerCase(Locale.ENGLISH)) == null) {
+        return;
+      }
+      this.commands = ImmutableSortedMap.copyOfSorted(updated);
+    }
+    injectedCommands.invalidate();
   }
 
   /**
@@ -150,7 +168,19 @@ public class VelocityCommandManager implements CommandManager {
   }
 
   public Set<String> getAllRegisteredCommands() {
-    return ImmutableSet.copyOf(commands.keySet());
+    return commands.keySet();
+  }
+
+  /**
+   * Returns the encoded command nodes to inject into the command graph sent to the {@code source}.
+   * The nodes are shared between all sources that may use the same set of commands.
+   *
+   * @param source the source to get the commands for
+   * @return the encoded commands the source has permission to use
+   */
+  public EncodedLiterals getInjectedCommands(CommandSource source) {
+    Preconditions.checkNotNull(source, "source");
+    return injectedCommands.get(source);
   }
 
   /**
@@ -165,11 +195,18 @@ public class VelocityCommandManager implements CommandManager {
 
     int firstSpace = cmdLine.indexOf(' ');
     if (firstSpace == -1) {
-      // Offer to fill in commands.
+      // Offer to fill in commands. Aliases are sorted, so all the aliases starting with the
+      // prefix come right after it. Several aliases may share a command, so remember whether the
+      // source may use each command for the rest of this request.
+      String prefix = cmdLine.toLowerCase(Locale.ENGLISH);
+      Map<RawCommand, Boolean> permitted = new IdentityHashMap<>();
       ImmutableList.Builder<String> availableCommands = ImmutableList.builder();
-      for (Map.Entry<String, RawCommand> entry : commands.entrySet()) {
-        if (entry.getKey().regionMatches(true, 0, cmdLine, 0, cmdLine.length())
-            && entry.getValue().hasPermission(source, new String[0])) {
+      for (Map.Entry<String, RawCommand> entry : commands.tailMap(prefix, true).entrySet()) {
+        if (!entry.getKey().startsWith(prefix)) {
+          break;
+        }
+        if (permitted.computeIfAbsent(entry.getValue(),
+            command -> command.hasPermission(source, new String[0]))) {
           availableCommands.add("/" + entry.getKey());
         }
       }
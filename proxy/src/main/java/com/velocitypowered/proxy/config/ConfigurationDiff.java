@@ -0,0 +1,132 @@
+package com.velocitypowered.proxy.config;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Describes which parts of the proxy must be updated to go from one {@link VelocityConfiguration}
+ * to another. Settings that are read from the configuration each time they are used, such as the
+ * MOTD or the forwarding mode, take effect as soon as the new configuration is in place, and are
+ * not part of the difference.
+ */
+public final class ConfigurationDiff {
+
+  private final Map<String, String> addedServers;
+  private final Map<String, String> changedServers;
+  private final boolean bindChanged;
+  private final boolean queryChanged;
+  private final boolean loginRatelimitChanged;
+  private final boolean statusRatelimitChanged;
+  private final boolean healthCheckIntervalChanged;
+
+  private ConfigurationDiff(Map<String, String> addedServers, Map<String, String> changedServers,
+      boolean bindChanged, boolean queryChanged, boolean loginRatelimitChanged,
+      boolean statusRatelimitChanged, boolean healthCheckIntervalChanged) {
+    this.addedServers = addedServers;
+    this.changedServers = changedServers;
+    this.bindChanged = bindChanged;
+    this.queryChanged = queryChanged;
+    this.loginRatelimitChanged = loginRatelimitChanged;
+    this.statusRatelimitChanged = statusRatelimitChanged;
+    this.healthCheckIntervalChanged = healthCheckIntervalChanged;
+  }
+
+  /**
+   * Computes the difference between two configurations.
+   *
+   * @param current the configuration in use
+   * @param updated the configuration to switch to
+   * @return the difference between the configurations
+   */
+  public static ConfigurationDiff compute(VelocityConfiguration current,
+      VelocityConfiguration updated) {
+    ImmutableMap.Builder<String, String> added = ImmutableMap.builder();
+    ImmutableMap.Builder<String, String> changed = ImmutableMap.builder();
+    for (Map.Entry<String, String> entry : updated.getServers().entrySet()) {
+      String address = current.getServers().get(entry.getKey());
+      if (address == null) {
+        added.put(entry.getKey(), entry.getValue());
+      } else if (!address.equals(entry.getValue())) {
+        changed.put(entry.getKey(), entry.getValue());
+      }
+    }
+
+    boolean queryChanged = current.isQueryEnabled() != updated.isQueryEnabled()
+        || (updated.isQueryEnabled()
+            && (current.getQueryPort() != updated.getQueryPort()
+            || !Objects.equals(current.getBind().getHostString(),
+                updated.getBind().getHostString())));
+
+    return new ConfigurationDiff(added.build(), changed.build(),
+        !current.getBind().equals(updated.getBind()),
+        queryChanged,
+        current.getLoginRatelimit() != updated.getLoginRatelimit(),
+        current.getStatusRatelimit() != updated.getStatusRatelimit(),
+        current.getServerHealthCheckInterval() != updated.getServerHealthCheckInterval());
+  }
+
+  /**
+   * Returns the servers that are not registered yet, keyed by name.
+   *
+   * @return the added servers
+   */
+  public Map<String, String> getAddedServers() {
+    return addedServers;
+  }
+
+  /**
+   * Returns the servers whose address changed, keyed by name. Players connected to these servers
+   * must be moved elsewhere.
+   *
+   * @return the changed servers
+   */
+  public Map<String, String> getChangedServers() {
+    return changedServers;
+  }
+
+  public boolean isBindChanged() {
+    return bindChanged;
+  }
+
+  public boolean isQueryChanged() {
+    return queryChanged;
+  }
+
+  public boolean isLoginRatelimitChanged() {
+    return loginRatelimitChanged;
+  }
+
+  public boolean isStatusRatelimitChanged() {
+    return statusRatelimitChanged;
+  }
+
+  public boolean isHealthCheckIntervalChanged() {
+    return healthCheckIntervalChanged;
+  }
+
+  /**
+   * Determines whether switching configurations requires no changes besides replacing the
+   * configuration.
+   *
+   * @return whether nothing needs to be updated
+   */
+  public boolean isEmpty() {
+    return addedServers.isEmpty() && changedServers.isEmpty() && !bindChanged && !queryChanged
+        && !loginRatelimitChanged && !statusRatelimitChanged && !healthCheckIntervalChanged;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("addedServers", addedServers.keySet())
+        .add("changedServers", changedServers.keySet())
+        .add("bindChanged", bindChanged)
+        .add("queryChanged", queryChanged)
+        .add("loginRatelimitChanged", loginRatelimitChanged)
+        .add("statusRatelimitChanged", statusRatelimitChanged)
+        .add("healthCheckIntervalChanged", healthCheckIntervalChanged)
+        .toString();
+  }
+}
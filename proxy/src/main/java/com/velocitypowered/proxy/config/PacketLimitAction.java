@@ -0,0 +1,7 @@
+package com.velocitypowered.proxy.config;
+
+public enum PacketLimitAction {
+  DROP,
+  KICK,
+  THROTTLE
+}
@@ -0,0 +1,8 @@
+package com.velocitypowered.proxy.config;
+
+public enum ServerBalancingStrategy {
+  IN_ORDER,
+  LEAST_PLAYERS,
+  ROUND_ROBIN,
+  POWER_OF_TWO
+}
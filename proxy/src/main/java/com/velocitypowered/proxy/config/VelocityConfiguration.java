@@ -116,12 +116,30 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
   @ConfigKey("ping-passthrough")
   private PingPassthroughMode pingPassthrough = PingPassthroughMode.DISABLED;
 
+  @Comment({
+      "How should Velocity pick a server from your try list (or forced host) when a player",
+      "logs in or is kicked from a server?",
+      "Available options:",
+      "- \"in_order\":      Servers are tried in the order they are listed in.",
+      "- \"least_players\": The server with the fewest players on this proxy is tried first.",
+      "- \"round_robin\":   Servers take turns, in proportion to their weights configured in",
+      "                   [server-weights].",
+      "- \"power_of_two\":  Two servers are picked at random, and the one with the lower load",
+      "                   relative to its weight and health is tried first.",
+      "If the chosen server can't be connected to, the servers after it in the list are tried."
+  })
+  @ConfigKey("server-balancing")
+  private ServerBalancingStrategy serverBalancing = ServerBalancingStrategy.IN_ORDER;
+
   @Table("[servers]")
   private final Servers servers;
 
   @Table("[forced-hosts]")
   private final ForcedHosts forcedHosts;
 
+  @Table("[server-weights]")
+  private final ServerWeights serverWeights;
+
   @Table("[advanced]")
   private final Advanced advanced;
 
@@ -133,14 +151,17 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
 
   @Ignore
   private @MonotonicNonNull Component motdAsComponent;
+  @Ignore
+  private @MonotonicNonNull Component drainMotdAsComponent;
 
   @Ignore
   private @Nullable Favicon favicon;
 
-  private VelocityConfiguration(Servers servers, ForcedHosts forcedHosts, Advanced advanced,
-      Query query, Metrics metrics) {
+  private VelocityConfiguration(Servers servers, ForcedHosts forcedHosts,
+      ServerWeights serverWeights, Advanced advanced, Query query, Metrics metrics) {
     this.servers = servers;
     this.forcedHosts = forcedHosts;
+    this.serverWeights = serverWeights;
     this.advanced = advanced;
     this.query = query;
     this.metrics = metrics;
@@ -148,8 +169,9 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
 
   private VelocityConfiguration(String bind, String motd, int showMaxPlayers, boolean onlineMode,
       boolean announceForge, PlayerInfoForwarding playerInfoForwardingMode, byte[] forwardingSecret,
-      boolean onlineModeKickExistingPlayers, PingPassthroughMode pingPassthrough, Servers servers,
-      ForcedHosts forcedHosts, Advanced advanced, Query query, Metrics metrics) {
+      boolean onlineModeKickExistingPlayers, PingPassthroughMode pingPassthrough,
+      ServerBalancingStrategy serverBalancing, Servers servers, ForcedHosts forcedHosts,
+      ServerWeights serverWeights, Advanced advanced, Query query, Metrics metrics) {
     this.bind = bind;
     this.motd = motd;
     this.showMaxPlayers = showMaxPlayers;
@@ -159,8 +181,10 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     this.forwardingSecret = forwardingSecret;
     this.onlineModeKickExistingPlayers = onlineModeKickExistingPlayers;
     this.pingPassthrough = pingPassthrough;
+    this.serverBalancing = serverBalancing;
     this.servers = servers;
     this.forcedHosts = forcedHosts;
+    this.serverWeights = serverWeights;
     this.advanced = advanced;
     this.query = query;
     this.metrics = metrics;
@@ -241,6 +265,16 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
       }
     }
 
+    for (Map.Entry<String, Integer> entry : serverWeights.getWeights().entrySet()) {
+      if (!servers.getServers().containsKey(entry.getKey())) {
+        logger.error("Server '{}' in server weights does not exist", entry.getKey());
+        valid = false;
+      } else if (entry.getValue() <= 0) {
+        logger.error("Server '{}' has an invalid weight of {}", entry.getKey(), entry.getValue());
+        valid = false;
+      }
+    }
+
     try {
       getMotdComponent();
     } catch (Exception e) {
@@ -269,6 +303,25 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
       valid = false;
     }
 
+    if (advanced.clientWriteBufferLowWatermark < 0
+        || advanced.clientWriteBufferHighWatermark < advanced.clientWriteBufferLowWatermark) {
+      logger.error("Invalid client write buffer watermarks (low {}, high {})",
+          advanced.clientWriteBufferLowWatermark, advanced.clientWriteBufferHighWatermark);
+      valid = false;
+    }
+
+    if (advanced.serverWriteBufferLowWatermark < 0
+        || advanced.serverWriteBufferHighWatermark < advanced.serverWriteBufferLowWatermark) {
+      logger.error("Invalid server write buffer watermarks (low {}, high {})",
+          advanced.serverWriteBufferLowWatermark, advanced.serverWriteBufferHighWatermark);
+      valid = false;
+    }
+
+    if (advanced.unwritableClientTimeout < 0) {
+      logger.error("Invalid unwritable client timeout {}ms", advanced.unwritableClientTimeout);
+      valid = false;
+    }
+
     loadFavicon();
 
     return valid;
@@ -309,6 +362,10 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     return query.shouldQueryShowPlugins();
   }
 
+  public int getQueryRateLimit() {
+    return query.getRateLimit();
+  }
+
   public String getMotd() {
     return motd;
   }
@@ -416,6 +473,111 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     return advanced.tcpFastOpen;
   }
 
+  public boolean useReusePort() {
+    return advanced.reusePort;
+  }
+
+  public boolean isBatchTabListUpdates() {
+    return advanced.batchTabListUpdates;
+  }
+
+  public int getPermissionCacheSize() {
+    return advanced.permissionCacheSize;
+  }
+
+  public boolean isPrepareFallbackConnections() {
+    return advanced.prepareFallbackConnections;
+  }
+
+  public boolean isCacheServerAddresses() {
+    return advanced.cacheServerAddresses;
+  }
+
+  public int getServerFailureThreshold() {
+    return advanced.serverFailureThreshold;
+  }
+
+  public int getServerRecoveryCooldown() {
+    return advanced.serverRecoveryCooldown;
+  }
+
+  public int getServerHealthCheckInterval() {
+    return advanced.serverHealthCheckInterval;
+  }
+
+  public String getSessionServerUrl() {
+    return advanced.sessionServerUrl;
+  }
+
+  public int getSessionServerTimeout() {
+    return advanced.sessionServerTimeout;
+  }
+
+  public int getSessionCacheTime() {
+    return advanced.sessionCacheTime;
+  }
+
+  /**
+   * Returns the MOTD shown while the proxy is draining.
+   *
+   * @return the MOTD shown while draining
+   */
+  public Component getDrainMotdComponent() {
+    if (drainMotdAsComponent == null) {
+      String drainMotd = advanced.drainMotd;
+      if (drainMotd.startsWith("{")) {
+        drainMotdAsComponent = GsonComponentSerializer.INSTANCE.deserialize(drainMotd);
+      } else {
+        drainMotdAsComponent = LegacyComponentSerializer.legacy().deserialize(drainMotd, '&');
+      }
+    }
+    return drainMotdAsComponent;
+  }
+
+  public int getPacketRateLimit() {
+    return advanced.packetRateLimit;
+  }
+
+  public int getChatPacketRateLimit() {
+    return advanced.chatPacketRateLimit;
+  }
+
+  public int getTabCompletePacketRateLimit() {
+    return advanced.tabCompletePacketRateLimit;
+  }
+
+  public int getPluginMessagePacketRateLimit() {
+    return advanced.pluginMessagePacketRateLimit;
+  }
+
+  public PacketLimitAction getPacketRateLimitAction() {
+    return advanced.packetRateLimitAction;
+  }
+
+  public int getClientWriteBufferHighWatermark() {
+    return advanced.clientWriteBufferHighWatermark;
+  }
+
+  public int getClientWriteBufferLowWatermark() {
+    return advanced.clientWriteBufferLowWatermark;
+  }
+
+  public int getServerWriteBufferHighWatermark() {
+    return advanced.serverWriteBufferHighWatermark;
+  }
+
+  public int getServerWriteBufferLowWatermark() {
+    return advanced.serverWriteBufferLowWatermark;
+  }
+
+  public int getUnwritableClientTimeout() {
+    return advanced.unwritableClientTimeout;
+  }
+
+  public boolean isDropNonEssentialPackets() {
+    return advanced.dropNonEssentialPackets;
+  }
+
   public Metrics getMetrics() {
     return metrics;
   }
@@ -424,6 +586,21 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     return pingPassthrough;
   }
 
+  public ServerBalancingStrategy getServerBalancing() {
+    return serverBalancing;
+  }
+
+  /**
+   * Returns the balancing weight of the specified server.
+   *
+   * @param server the name of the server
+   * @return the weight of the server, {@code 1} if none was configured
+   */
+  public int getServerWeight(String server) {
+    Integer weight = serverWeights.getWeights().get(server);
+    return weight == null ? 1 : weight;
+  }
+
   public boolean isBungeePluginChannelEnabled() {
     return advanced.isBungeePluginMessageChannel();
   }
@@ -441,6 +618,8 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
         .add("announceForge", announceForge)
         .add("servers", servers)
         .add("forcedHosts", forcedHosts)
+        .add("serverBalancing", serverBalancing)
+        .add("serverWeights", serverWeights)
         .add("advanced", advanced)
         .add("query", query)
         .add("favicon", favicon)
@@ -457,8 +636,8 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     Toml toml;
     if (!path.toFile().exists()) {
       getLogger().info("No velocity.toml found, creating one for you...");
-      return new VelocityConfiguration(new Servers(), new ForcedHosts(), new Advanced(),
-          new Query(), new Metrics());
+      return new VelocityConfiguration(new Servers(), new ForcedHosts(), new ServerWeights(),
+          new Advanced(), new Query(), new Metrics());
     } else {
       try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
         toml = new Toml().read(reader);
@@ -467,6 +646,7 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
 
     Servers servers = new Servers(toml.getTable("servers"));
     ForcedHosts forcedHosts = new ForcedHosts(toml.getTable("forced-hosts"));
+    ServerWeights serverWeights = new ServerWeights(toml.getTable("server-weights"));
     Advanced advanced = new Advanced(toml.getTable("advanced"));
     Query query = new Query(toml.getTable("query"));
     Metrics metrics = new Metrics(toml.getTable("metrics"));
@@ -477,6 +657,8 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
         .toUpperCase(Locale.US);
     String passThroughName = toml.getString("ping-passthrough", "DISABLED")
         .toUpperCase(Locale.US);
+    String balancingName = toml.getString("server-balancing", "IN_ORDER")
+        .toUpperCase(Locale.US);
 
     return new VelocityConfiguration(
         toml.getString("bind", "0.0.0.0:25577"),
@@ -488,8 +670,10 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
         forwardingSecret,
         toml.getBoolean("kick-existing-players", false),
         PingPassthroughMode.valueOf(passThroughName),
+        ServerBalancingStrategy.valueOf(balancingName),
         servers,
         forcedHosts,
+        serverWeights,
         advanced,
         query,
         metrics
@@ -642,6 +826,47 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     }
   }
 
+  private static class ServerWeights {
+
+    @IsMap
+    @Comment({
+        "Configure how many players each server should receive relative to the others when",
+        "server-balancing is \"round_robin\" or \"power_of_two\". Servers not listed here have a",
+        "weight of 1."
+    })
+    private Map<String, Integer> weights = ImmutableMap.of();
+
+    private ServerWeights() {
+    }
+
+    private ServerWeights(Toml toml) {
+      if (toml != null) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (Map.Entry<String, Object> entry : toml.entrySet()) {
+          if (entry.getValue() instanceof Number) {
+            weights.put(entry.getKey().replace("\"", ""),
+                ((Number) entry.getValue()).intValue());
+          } else {
+            throw new IllegalStateException(
+                "Invalid value of type " + entry.getValue().getClass() + " in server weights!");
+          }
+        }
+        this.weights = ImmutableMap.copyOf(weights);
+      }
+    }
+
+    private Map<String, Integer> getWeights() {
+      return weights;
+    }
+
+    @Override
+    public String toString() {
+      return "ServerWeights{"
+          + "weights=" + weights
+          + '}';
+    }
+  }
+
   private static class Advanced {
 
     @Comment({
@@ -687,10 +912,154 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     @ConfigKey("tcp-fast-open")
     private boolean tcpFastOpen = false;
 
+    @Comment({
+        "Opens one listener per worker thread using SO_REUSEPORT, letting the kernel spread",
+        "incoming connections across all of them. Requires the proxy to run on Linux with epoll",
+        "or io_uring."
+    })
+    @ConfigKey("reuse-port")
+    private boolean reusePort = false;
+
     @Comment("Enables BungeeCord plugin messaging channel support on Velocity.")
     @ConfigKey("bungee-plugin-message-channel")
     private boolean bungeePluginMessageChannel = true;
 
+    @Comment({
+        "Collects tab list changes made by plugins and sends them once per tick, merging them into",
+        "as few packets as possible. Useful for network-wide tab list plugins."
+    })
+    @ConfigKey("batch-tab-list-updates")
+    private boolean batchTabListUpdates = false;
+
+    @Comment({
+        "How many permission check results to remember for each player. Permission plugins must",
+        "tell Velocity when a player's permissions change for this to work correctly. Set this to",
+        "0 to always ask the permission plugin."
+    })
+    @ConfigKey("permission-cache-size")
+    private int permissionCacheSize = 0;
+
+    @Comment({
+        "While a player connects to a server from the try list, also open a connection to the",
+        "next server in the list, so that falling back to it is faster if the first one fails."
+    })
+    @ConfigKey("prepare-fallback-connections")
+    private boolean prepareFallbackConnections = false;
+
+    @Comment({
+        "Remember the resolved addresses of backend servers, refreshing them in the background",
+        "once their DNS records expire. If a refresh fails, the last known address is used."
+    })
+    @ConfigKey("cache-server-addresses")
+    private boolean cacheServerAddresses = true;
+
+    @Comment({
+        "How many connection attempts to a server may fail in a row before the server is marked",
+        "as unavailable. Players are not sent to unavailable servers. Set this to 0 to disable."
+    })
+    @ConfigKey("server-failure-threshold")
+    private int serverFailureThreshold = 3;
+
+    @Comment("How long (in milliseconds) to wait before trying an unavailable server again.")
+    @ConfigKey("server-recovery-cooldown")
+    private int serverRecoveryCooldown = 10000;
+
+    @Comment({
+        "How often (in milliseconds) to ping every server to check its health. Set this to 0 to",
+        "only track health when players connect."
+    })
+    @ConfigKey("server-health-check-interval")
+    private int serverHealthCheckInterval = 0;
+
+    @Comment({
+        "The session server used to authenticate players in online mode. Only change this if you",
+        "want to test the proxy against a local stand-in for Mojang's session server."
+    })
+    @ConfigKey("session-server-url")
+    private String sessionServerUrl = "https://sessionserver.mojang.com";
+
+    @Comment("How long (in milliseconds) to wait for the session server to authenticate a player.")
+    @ConfigKey("session-server-timeout")
+    private int sessionServerTimeout = 10000;
+
+    @Comment({
+        "How long (in milliseconds) to remember a successful authentication, so that a client",
+        "retrying the same login does not ask the session server again. Set this to 0 to disable."
+    })
+    @ConfigKey("session-cache-time")
+    private int sessionCacheTime = 0;
+
+    @Comment({
+        "The MOTD shown to clients pinging the proxy while it is draining. New logins are refused",
+        "while draining, so this should tell players to connect again shortly."
+    })
+    @ConfigKey("drain-motd")
+    private String drainMotd = "&cThis proxy is restarting, please connect again shortly.";
+
+    @Comment({
+        "How many packets per second a player may send to the proxy. Set this to 0 to disable.",
+        "The limits below apply to specific packets on top of this limit."
+    })
+    @ConfigKey("packet-rate-limit")
+    private int packetRateLimit = 500;
+
+    @Comment("How many chat messages and commands per second a player may send.")
+    @ConfigKey("chat-packet-rate-limit")
+    private int chatPacketRateLimit = 20;
+
+    @Comment("How many tab completion requests per second a player may send.")
+    @ConfigKey("tab-complete-packet-rate-limit")
+    private int tabCompletePacketRateLimit = 20;
+
+    @Comment("How many plugin messages per second a player may send.")
+    @ConfigKey("plugin-message-packet-rate-limit")
+    private int pluginMessagePacketRateLimit = 100;
+
+    @Comment({
+        "What to do with packets over the limits above. Available options:",
+        "- \"drop\":     Ignores chat, tab completion and plugin message packets over their own",
+        "              limit. Going over packet-rate-limit throttles the player instead, since",
+        "              ignoring other packets would desync the player from their server.",
+        "- \"kick\":     Disconnects the player.",
+        "- \"throttle\": Stops reading from the player until they may send a packet again."
+    })
+    @ConfigKey("packet-rate-limit-action")
+    private PacketLimitAction packetRateLimitAction = PacketLimitAction.DROP;
+
+    @Comment({
+        "How many bytes may be waiting to be sent to a player before the proxy stops",
+        "reading from their server, and how few before it starts reading again."
+    })
+    @ConfigKey("client-write-buffer-high-watermark")
+    private int clientWriteBufferHighWatermark = 2097152;
+
+    @ConfigKey("client-write-buffer-low-watermark")
+    private int clientWriteBufferLowWatermark = 1048576;
+
+    @Comment({
+        "How many bytes may be waiting to be sent to a server before the proxy stops reading from",
+        "the player, and how few before it starts reading again."
+    })
+    @ConfigKey("server-write-buffer-high-watermark")
+    private int serverWriteBufferHighWatermark = 65536;
+
+    @ConfigKey("server-write-buffer-low-watermark")
+    private int serverWriteBufferLowWatermark = 32768;
+
+    @Comment({
+        "How long (in milliseconds) a player may be unable to keep up with the packets sent to",
+        "them before they are disconnected. Set this to 0 to disable."
+    })
+    @ConfigKey("unwritable-client-timeout")
+    private int unwritableClientTimeout = 30000;
+
+    @Comment({
+        "Whether to drop titles and action bar messages sent to players who can't keep up, instead",
+        "of adding them to the backlog."
+    })
+    @ConfigKey("drop-non-essential-packets")
+    private boolean dropNonEssentialPackets = true;
+
     private Advanced() {
     }
 
@@ -699,11 +1068,46 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
         this.compressionThreshold = toml.getLong("compression-threshold", 256L).intValue();
         this.compressionLevel = toml.getLong("compression-level", -1L).intValue();
         this.loginRatelimit = toml.getLong("login-ratelimit", 3000L).intValue();
+        this.statusRatelimit = toml.getLong("status-ratelimit", 250L).intValue();
         this.connectionTimeout = toml.getLong("connection-timeout", 5000L).intValue();
         this.readTimeout = toml.getLong("read-timeout", 30000L).intValue();
         this.proxyProtocol = toml.getBoolean("proxy-protocol", false);
         this.tcpFastOpen = toml.getBoolean("tcp-fast-open", false);
+        this.reusePort = toml.getBoolean("reuse-port", false);
         this.bungeePluginMessageChannel = toml.getBoolean("bungee-plugin-message-channel", true);
+        this.batchTabListUpdates = toml.getBoolean("batch-tab-list-updates", false);
+        this.permissionCacheSize = toml.getLong("permission-cache-size", 0L).intValue();
+        this.prepareFallbackConnections = toml.getBoolean("prepare-fallback-connections", false);
+        this.cacheServerAddresses = toml.getBoolean("cache-server-addresses", true);
+        this.serverFailureThreshold = toml.getLong("server-failure-threshold", 3L).intValue();
+        this.serverRecoveryCooldown = toml.getLong("server-recovery-cooldown", 10000L).intValue();
+        this.serverHealthCheckInterval = toml.getLong("server-health-check-interval", 0L)
+            .intValue();
+        this.sessionServerUrl = toml.getString("session-server-url",
+            "https://sessionserver.mojang.com");
+        this.sessionServerTimeout = toml.getLong("session-server-timeout", 10000L).intValue();
+        this.sessionCacheTime = toml.getLong("session-cache-time", 0L).intValue();
+        this.drainMotd = toml.getString("drain-motd",
+            "&cThis proxy is restarting, please connect again shortly.");
+        this.packetRateLimit = toml.getLong("packet-rate-limit", 500L).intValue();
+        this.chatPacketRateLimit = toml.getLong("chat-packet-rate-limit", 20L).intValue();
+        this.tabCompletePacketRateLimit = toml.getLong("tab-complete-packet-rate-limit", 20L)
+            .intValue();
+        this.pluginMessagePacketRateLimit = toml.getLong("plugin-message-packet-rate-limit",
+            100L).intValue();
+        this.packetRateLimitAction = PacketLimitAction.valueOf(
+            toml.getString("packet-rate-limit-action", "DROP").toUpperCase(Locale.US));
+        this.clientWriteBufferHighWatermark = toml.getLong("client-write-buffer-high-watermark",
+            2097152L).intValue();
+        this.clientWriteBufferLowWatermark = toml.getLong("client-write-buffer-low-watermark",
+            1048576L).intValue();
+        this.serverWriteBufferHighWatermark = toml.getLong("server-write-buffer-high-watermark",
+            65536L).intValue();
+        this.serverWriteBufferLowWatermark = toml.getLong("server-write-buffer-low-watermark",
+            32768L).intValue();
+        this.unwritableClientTimeout = toml.getLong("unwritable-client-timeout", 30000L)
+            .intValue();
+        this.dropNonEssentialPackets = toml.getBoolean("drop-non-essential-packets", true);
       }
     }
 
@@ -739,10 +1143,102 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
       return tcpFastOpen;
     }
 
+    public boolean isReusePort() {
+      return reusePort;
+    }
+
     public boolean isBungeePluginMessageChannel() {
       return bungeePluginMessageChannel;
     }
 
+    public boolean isBatchTabListUpdates() {
+      return batchTabListUpdates;
+    }
+
+    public int getPermissionCacheSize() {
+      return permissionCacheSize;
+    }
+
+    public boolean isPrepareFallbackConnections() {
+      return prepareFallbackConnections;
+    }
+
+    public boolean isCacheServerAddresses() {
+      return cacheServerAddresses;
+    }
+
+    public int getServerFailureThreshold() {
+      return serverFailureThreshold;
+    }
+
+    public int getServerRecoveryCooldown() {
+      return serverRecoveryCooldown;
+    }
+
+    public int getServerHealthCheckInterval() {
+      return serverHealthCheckInterval;
+    }
+
+    public String getSessionServerUrl() {
+      return sessionServerUrl;
+    }
+
+    public int getSessionServerTimeout() {
+      return sessionServerTimeout;
+    }
+
+    public int getSessionCacheTime() {
+      return sessionCacheTime;
+    }
+
+    public String getDrainMotd() {
+      return drainMotd;
+    }
+
+    public int getPacketRateLimit() {
+      return packetRateLimit;
+    }
+
+    public int getChatPacketRateLimit() {
+      return chatPacketRateLimit;
+    }
+
+    public int getTabCompletePacketRateLimit() {
+      return tabCompletePacketRateLimit;
+    }
+
+    public int getPluginMessagePacketRateLimit() {
+      return pluginMessagePacketRateLimit;
+    }
+
+    public PacketLimitAction getPacketRateLimitAction() {
+      return packetRateLimitAction;
+    }
+
+    public int getClientWriteBufferHighWatermark() {
+      return clientWriteBufferHighWatermark;
+    }
+
+    public int getClientWriteBufferLowWatermark() {
+      return clientWriteBufferLowWatermark;
+    }
+
+    public int getServerWriteBufferHighWatermark() {
+      return serverWriteBufferHighWatermark;
+    }
+
+    public int getServerWriteBufferLowWatermark() {
+      return serverWriteBufferLowWatermark;
+    }
+
+    public int getUnwritableClientTimeout() {
+      return unwritableClientTimeout;
+    }
+
+    public boolean isDropNonEssentialPackets() {
+      return dropNonEssentialPackets;
+    }
+
     @Override
     public String toString() {
       return MoreObjects.toStringHelper(this)
@@ -754,7 +1250,30 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
           .add("readTimeout", readTimeout)
           .add("proxyProtocol", proxyProtocol)
           .add("tcpFastOpen", tcpFastOpen)
+          .add("reusePort", reusePort)
           .add("bungeePluginMessageChannel" , bungeePluginMessageChannel )
+          .add("batchTabListUpdates", batchTabListUpdates)
+          .add("permissionCacheSize", permissionCacheSize)
+          .add("prepareFallbackConnections", prepareFallbackConnections)
+          .add("cacheServerAddresses", cacheServerAddresses)
+          .add("serverFailureThreshold", serverFailureThreshold)
+          .add("serverRecoveryCooldown", serverRecoveryCooldown)
+          .add("serverHealthCheckInterval", serverHealthCheckInterval)
+          .add("sessionServerUrl", sessionServerUrl)
+          .add("sessionServerTimeout", sessionServerTimeout)
+          .add("sessionCacheTime", sessionCacheTime)
+          .add("drainMotd", drainMotd)
+          .add("packetRateLimit", packetRateLimit)
+          .add("chatPacketRateLimit", chatPacketRateLimit)
+          .add("tabCompletePacketRateLimit", tabCompletePacketRateLimit)
+          .add("pluginMessagePacketRateLimit", pluginMessagePacketRateLimit)
+          .add("packetRateLimitAction", packetRateLimitAction)
+          .add("clientWriteBufferHighWatermark", clientWriteBufferHighWatermark)
+          .add("clientWriteBufferLowWatermark", clientWriteBufferLowWatermark)
+          .add("serverWriteBufferHighWatermark", serverWriteBufferHighWatermark)
+          .add("serverWriteBufferLowWatermark", serverWriteBufferLowWatermark)
+          .add("unwritableClientTimeout", unwritableClientTimeout)
+          .add("dropNonEssentialPackets", dropNonEssentialPackets)
           .toString();
     }
   }
@@ -777,6 +1296,13 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     @ConfigKey("show-plugins")
     private boolean showPlugins = false;
 
+    @Comment({
+        "How many query packets each IP address may send per second. Packets beyond this limit",
+        "are dropped. Set this to 0 to disable the limit."
+    })
+    @ConfigKey("rate-limit")
+    private int rateLimit = 20;
+
     private Query() {
     }
 
@@ -793,6 +1319,7 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
         this.queryPort = toml.getLong("port", 25577L).intValue();
         this.queryMap = toml.getString("map", "Velocity");
         this.showPlugins = toml.getBoolean("show-plugins", false);
+        this.rateLimit = toml.getLong("rate-limit", 20L).intValue();
       }
     }
 
@@ -812,6 +1339,10 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
       return showPlugins;
     }
 
+    public int getRateLimit() {
+      return rateLimit;
+    }
+
     @Override
     public String toString() {
       return "Query{"
@@ -819,6 +1350,7 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
           + ", queryPort=" + queryPort
           + ", queryMap='" + queryMap + '\''
           + ", showPlugins=" + showPlugins
+          + ", rateLimit=" + rateLimit
           + '}';
     }
   }
@@ -18,6 +18,7 @@ import com.velocitypowered.natives.util.Natives;
 import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.network.netty.DiscardHandler;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCipherDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCipherEncoder;
@@ -25,6 +26,9 @@ import com.velocitypowered.proxy.protocol.netty.MinecraftCompressDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCompressEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
+import com.velocitypowered.proxy.protocol.packet.Chat;
+import com.velocitypowered.proxy.protocol.packet.TitlePacket;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
@@ -34,9 +38,14 @@ import io.netty.channel.EventLoop;
 import io.netty.handler.codec.haproxy.HAProxyMessage;
 import io.netty.handler.timeout.ReadTimeoutException;
 import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.apache.logging.log4j.LogManager;
@@ -61,6 +70,13 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
   private final VelocityServer server;
   private ConnectionType connectionType = ConnectionTypes.UNDETERMINED;
   private boolean knownDisconnect = false;
+  private final Set<ReadPause> readPauses = EnumSet.noneOf(ReadPause.class);
+  private boolean dropNonEssentialWhenUnwritable = false;
+  private volatile boolean unwritable = false;
+  private volatile long unwritableSince;
+  private volatile long unwritableNanos;
+  private long unwritableTimeoutMillis = 0;
+  private @Nullable ScheduledFuture<?> unwritableTimeoutTask;
 
   /**
    * Initializes a new {@link MinecraftConnection} instance.
@@ -87,6 +103,7 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
 
   @Override
   public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    cancelUnwritableTimeout();
     if (sessionHandler != null) {
       sessionHandler.disconnected();
     }
@@ -152,11 +169,47 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
 
   @Override
   public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    long now = System.nanoTime();
+    if (ctx.channel().isWritable()) {
+      if (unwritable) {
+        unwritableNanos += now - unwritableSince;
+        unwritable = false;
+      }
+      cancelUnwritableTimeout();
+    } else if (!unwritable) {
+      unwritableSince = now;
+      unwritable = true;
+      if (unwritableTimeoutMillis > 0) {
+        unwritableTimeoutTask = ctx.executor().schedule(this::closeUnwritable,
+            unwritableTimeoutMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+
     if (sessionHandler != null) {
       sessionHandler.writabilityChanged();
     }
   }
 
+  private void cancelUnwritableTimeout() {
+    if (unwritableTimeoutTask != null) {
+      unwritableTimeoutTask.cancel(false);
+      unwritableTimeoutTask = null;
+    }
+  }
+
+  private void closeUnwritable() {
+    unwritableTimeoutTask = null;
+    if (!unwritable || !channel.isActive()) {
+      return;
+    }
+    // The other side is too far behind for a disconnect packet to reach it in time, so just close
+    // the connection.
+    logger.info("{} could not keep up with the packets sent to it for {} ms, disconnecting",
+        association != null ? association : channel.remoteAddress(),
+        getCurrentUnwritableTime().toMillis());
+    close();
+  }
+
   private void ensureInEventLoop() {
     Preconditions.checkState(this.channel.eventLoop().inEventLoop(), "Not in event loop");
   }
@@ -178,25 +231,45 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
   }
 
   /**
-   * Writes and immediately flushes a message to the connection.
+   * Writes and immediately flushes a message to the connection. If the message is not written, it
+   * is released.
    * @param msg the message to write
    */
   public void write(Object msg) {
-    if (channel.isActive()) {
+    if (channel.isActive() && !shouldDrop(msg)) {
       channel.writeAndFlush(msg, channel.voidPromise());
+    } else {
+      ReferenceCountUtil.release(msg);
     }
   }
 
   /**
-   * Writes, but does not flush, a message to the connection.
+   * Writes, but does not flush, a message to the connection. If the message is not written, it is
+   * released.
    * @param msg the message to write
    */
   public void delayedWrite(Object msg) {
-    if (channel.isActive()) {
+    if (channel.isActive() && !shouldDrop(msg)) {
       channel.write(msg, channel.voidPromise());
+    } else {
+      ReferenceCountUtil.release(msg);
     }
   }
 
+  private boolean shouldDrop(Object msg) {
+    return dropNonEssentialWhenUnwritable && !channel.isWritable() && isNonEssential(msg);
+  }
+
+  /**
+   * Returns whether the client keeps working if the specified {@code msg} is never sent. These
+   * messages are only shown to the player for a short while, and a player who can't keep up would
+   * see them too late anyway.
+   */
+  private static boolean isNonEssential(Object msg) {
+    return msg instanceof TitlePacket
+        || (msg instanceof Chat && ((Chat) msg).getType() == Chat.GAME_INFO_TYPE);
+  }
+
   /**
    * Flushes the connection.
    */
@@ -244,19 +317,81 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     return state;
   }
 
+  /**
+   * Sets whether titles and action bar messages are dropped instead of being written while the
+   * other side can't keep up with what we send it.
+   *
+   * @param dropNonEssentialWhenUnwritable whether to drop non-essential messages
+   */
+  public void setDropNonEssentialWhenUnwritable(boolean dropNonEssentialWhenUnwritable) {
+    this.dropNonEssentialWhenUnwritable = dropNonEssentialWhenUnwritable;
+  }
+
+  /**
+   * Sets how long the other side may be unable to keep up with what we send it before the
+   * connection is closed.
+   *
+   * @param unwritableTimeoutMillis the timeout in milliseconds, or {@code 0} to never close the
+   *                                connection
+   */
+  public void setUnwritableTimeout(long unwritableTimeoutMillis) {
+    this.unwritableTimeoutMillis = unwritableTimeoutMillis;
+  }
+
+  /**
+   * Returns how long the other side has been unable to keep up with what we send it, in total.
+   *
+   * @return the total time the connection was unwritable
+   */
+  public Duration getUnwritableTime() {
+    long nanos = unwritableNanos;
+    if (unwritable) {
+      nanos += System.nanoTime() - unwritableSince;
+    }
+    return Duration.ofNanos(nanos);
+  }
+
+  /**
+   * Returns how long the other side has been unable to keep up with what we send it, since it
+   * last caught up.
+   *
+   * @return the time the connection has been unwritable, or {@link Duration#ZERO} if it is
+   *         writable
+   */
+  public Duration getCurrentUnwritableTime() {
+    if (!unwritable) {
+      return Duration.ZERO;
+    }
+    return Duration.ofNanos(System.nanoTime() - unwritableSince);
+  }
+
   public boolean isAutoReading() {
     return channel.config().isAutoRead();
   }
 
   /**
-   * Determines whether or not the channel should continue reading data automaticaly.
-   * @param autoReading whether or not we should read data automatically
+   * Stops reading data from the channel for the specified {@code reason}. Reading only resumes
+   * once every reason to stop has been lifted with {@link #resumeReading(ReadPause)}.
+   * @param reason why we should stop reading
    */
-  public void setAutoReading(boolean autoReading) {
+  public void pauseReading(ReadPause reason) {
     ensureInEventLoop();
 
-    channel.config().setAutoRead(autoReading);
-    if (autoReading) {
+    if (readPauses.add(reason)) {
+      channel.config().setAutoRead(false);
+    }
+  }
+
+  /**
+   * Lifts the specified {@code reason} to stop reading data from the channel, resuming reading if
+   * no other reason is left.
+   * @param reason the reason that no longer applies
+   */
+  public void resumeReading(ReadPause reason) {
+    ensureInEventLoop();
+
+    if (readPauses.remove(reason) && readPauses.isEmpty()) {
+      channel.config().setAutoRead(true);
       // For some reason, the channel may not completely read its queued contents once autoread
       // is turned back on, even though toggling autoreading on should handle things automatically.
       // We will issue an explicit read after turning on autoread.
@@ -266,6 +401,15 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     }
   }
 
+  /**
+   * Whether reading from the channel is paused for the specified {@code reason}.
+   * @param reason the reason to check
+   * @return whether reading is paused for the reason
+   */
+  public boolean isReadingPaused(ReadPause reason) {
+    return readPauses.contains(reason);
+  }
+
   /**
    * Changes the state of the Minecraft connection.
    * @param state the new state
@@ -276,6 +420,17 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     this.state = state;
     this.channel.pipeline().get(MinecraftEncoder.class).setState(state);
     this.channel.pipeline().get(MinecraftDecoder.class).setState(state);
+
+    MinecraftVarintFrameDecoder frameDecoder = this.channel.pipeline()
+        .get(MinecraftVarintFrameDecoder.class);
+    if (frameDecoder != null) {
+      frameDecoder.setState(state);
+    }
+    MinecraftCompressDecoder compressDecoder = this.channel.pipeline()
+        .get(MinecraftCompressDecoder.class);
+    if (compressDecoder != null) {
+      compressDecoder.setState(state);
+    }
   }
 
   public ProtocolVersion getProtocolVersion() {
@@ -341,7 +496,10 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     int level = server.getConfiguration().getCompressionLevel();
     VelocityCompressor compressor = Natives.compress.get().create(level);
     MinecraftCompressEncoder encoder = new MinecraftCompressEncoder(threshold, compressor);
-    MinecraftCompressDecoder decoder = new MinecraftCompressDecoder(threshold, compressor);
+    ProtocolUtils.Direction direction = channel.pipeline().get(MinecraftDecoder.class)
+        .getDirection();
+    MinecraftCompressDecoder decoder = new MinecraftCompressDecoder(threshold, compressor,
+        direction, state);
 
     channel.pipeline().addBefore(MINECRAFT_DECODER, COMPRESSION_DECODER, decoder);
     channel.pipeline().addBefore(MINECRAFT_ENCODER, COMPRESSION_ENCODER, encoder);
@@ -399,4 +557,22 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
   public void setType(ConnectionType connectionType) {
     this.connectionType = connectionType;
   }
+
+  /**
+   * The reasons we may stop reading from a connection.
+   */
+  public enum ReadPause {
+    /**
+     * The connection is switching to a new server.
+     */
+    TRANSITION,
+    /**
+     * The other side of the proxied connection can't keep up with what we send it.
+     */
+    BACKPRESSURE,
+    /**
+     * The connection is sending too many packets.
+     */
+    RATE_LIMIT
+  }
 }
@@ -3,10 +3,6 @@ package com.velocitypowered.proxy.connection.backend;
 import static com.velocitypowered.proxy.connection.backend.BungeeCordMessageResponder.getBungeeCordChannel;
 
 import com.google.common.collect.ImmutableList;
-import com.mojang.brigadier.arguments.StringArgumentType;
-import com.mojang.brigadier.builder.LiteralArgumentBuilder;
-import com.mojang.brigadier.builder.RequiredArgumentBuilder;
-import com.mojang.brigadier.tree.LiteralCommandNode;
 import com.velocitypowered.api.event.command.PlayerAvailableCommandsEvent;
 import com.velocitypowered.api.event.connection.PluginMessageEvent;
 import com.velocitypowered.api.proxy.messages.ChannelIdentifier;
@@ -17,7 +13,6 @@ import com.velocitypowered.proxy.connection.client.ClientPlaySessionHandler;
 import com.velocitypowered.proxy.connection.util.ConnectionMessages;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.packet.AvailableCommands;
-import com.velocitypowered.proxy.protocol.packet.AvailableCommands.ProtocolSuggestionProvider;
 import com.velocitypowered.proxy.protocol.packet.BossBar;
 import com.velocitypowered.proxy.protocol.packet.Disconnect;
 import com.velocitypowered.proxy.protocol.packet.KeepAlive;
@@ -26,11 +21,13 @@ import com.velocitypowered.proxy.protocol.packet.PluginMessage;
 import com.velocitypowered.proxy.protocol.packet.TabCompleteResponse;
 import com.velocitypowered.proxy.protocol.util.PluginMessageUtil;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufUtil;
-import io.netty.buffer.Unpooled;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 public class BackendPlaySessionHandler implements MinecraftSessionHandler {
 
+  private static final Logger logger = LogManager.getLogger(BackendPlaySessionHandler.class);
+
   private final VelocityServer server;
   private final VelocityServerConnection serverConn;
   private final ClientPlaySessionHandler playerSessionHandler;
@@ -134,15 +131,22 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
       return false;
     }
 
-    byte[] copy = ByteBufUtil.getBytes(packet.content());
+    // Hand the payload to plugins without copying it, and keep the packet alive until the event
+    // has been fired so that the original buffer can be forwarded.
     PluginMessageEvent event = new PluginMessageEvent(serverConn, serverConn.getPlayer(), id,
-        copy);
+        packet.content().nioBuffer());
+    packet.retain();
     server.getEventManager().fire(event)
-        .thenAcceptAsync(pme -> {
-          if (pme.getResult().isAllowed() && !playerConnection.isClosed()) {
-            PluginMessage copied = new PluginMessage(packet.getChannel(),
-                Unpooled.wrappedBuffer(copy));
-            playerConnection.write(copied);
+        .whenCompleteAsync((pme, throwable) -> {
+          if (throwable != null) {
+            logger.error("Unable to fire plugin message event for {}", serverConn.getPlayer(),
+                throwable);
+          }
+          // write() releases the packet if the player has gone away in the meantime.
+          if (pme != null && pme.getResult().isAllowed()) {
+            playerConnection.write(packet);
+          } else {
+            packet.release();
           }
         }, playerConnection.eventLoop());
     return true;
@@ -163,18 +167,12 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
   @Override
   public boolean handle(AvailableCommands commands) {
     // Inject commands from the proxy.
-    for (String command : server.getCommandManager().getAllRegisteredCommands()) {
-      if (!server.getCommandManager().hasPermission(serverConn.getPlayer(), command)) {
-        continue;
-      }
+    commands.injectLiterals(server.getCommandManager().getInjectedCommands(serverConn.getPlayer()));
 
-      LiteralCommandNode<Object> root = LiteralArgumentBuilder.literal(command)
-          .then(RequiredArgumentBuilder.argument("args", StringArgumentType.greedyString())
-              .suggests(new ProtocolSuggestionProvider("minecraft:ask_server"))
-              .build())
-          .executes((ctx) -> 0)
-          .build();
-      commands.getRootNode().addChild(root);
+    if (!server.getEventManager().hasSubscribers(PlayerAvailableCommandsEvent.class)) {
+      // Nobody needs to see the command graph, so we can avoid building it entirely.
+      playerConnection.write(commands);
+      return true;
     }
 
     server.getEventManager().fire(
@@ -196,6 +194,23 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
     playerConnection.write(buf.retain());
   }
 
+  @Override
+  public void writabilityChanged() {
+    if (!serverConn.isActive()) {
+      // The player has moved on from this connection.
+      return;
+    }
+    // Stop reading from the player until the server catches up with what they sent.
+    MinecraftConnection serverMc = serverConn.getConnection();
+    if (serverMc != null) {
+      if (serverMc.getChannel().isWritable()) {
+        playerConnection.resumeReading(MinecraftConnection.ReadPause.BACKPRESSURE);
+      } else {
+        playerConnection.pauseReading(MinecraftConnection.ReadPause.BACKPRESSURE);
+      }
+    }
+  }
+
   @Override
   public void exception(Throwable throwable) {
     exceptionTriggered = true;
@@ -209,6 +224,12 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
   @Override
   public void disconnected() {
     serverConn.getServer().removePlayer(serverConn.getPlayer());
+    // Writability events are not fired on close, so stop holding back the player here. If the
+    // player has already moved to another server, that server decides instead.
+    VelocityServerConnection current = serverConn.getPlayer().getConnectedServer();
+    if (current == null || current == serverConn) {
+      playerConnection.resumeReading(MinecraftConnection.ReadPause.BACKPRESSURE);
+    }
     if (!serverConn.isGracefulDisconnect() && !exceptionTriggered) {
       serverConn.getPlayer().handleConnectionException(serverConn.getServer(),
           Disconnect.create(ConnectionMessages.UNEXPECTED_DISCONNECT), true);
@@ -0,0 +1,102 @@
+package com.velocitypowered.proxy.connection.backend;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoop;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A TCP connection to a backend server opened ahead of time, so that a later connection attempt
+ * to the server doesn't have to wait for it. Only the TCP connection is established; the
+ * handshake and login happen once the player actually connects to the server.
+ *
+ * <p>All methods must be called from the event loop of the player's connection.</p>
+ */
+public final class PreparedConnection {
+
+  /**
+   * How long a prepared connection is kept around before it is closed. This must be well below
+   * the read timeout of a backend server, which would otherwise close the connection on its own.
+   */
+  private static final long EXPIRY_SECONDS = 10;
+
+  private final VelocityRegisteredServer target;
+  private final ChannelFuture connectFuture;
+  private final boolean automatic;
+  private final ScheduledFuture<?> expiry;
+  private boolean claimed;
+
+  private PreparedConnection(VelocityRegisteredServer target, ChannelFuture connectFuture,
+      boolean automatic, EventLoop eventLoop) {
+    this.target = target;
+    this.connectFuture = connectFuture;
+    this.automatic = automatic;
+    this.expiry = eventLoop.schedule(this::close, EXPIRY_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Starts connecting the {@code player} to the {@code target} server.
+   *
+   * @param server the proxy
+   * @param player the player to prepare a connection for
+   * @param target the server to connect to
+   * @param automatic whether the proxy decided to prepare this connection on its own
+   * @return the prepared connection
+   */
+  public static PreparedConnection open(VelocityServer server, ConnectedPlayer player,
+      VelocityRegisteredServer target, boolean automatic) {
+    EventLoop eventLoop = player.getConnection().eventLoop();
+    ChannelFuture connectFuture = server.createBootstrap(eventLoop)
+        .handler(server.getBackendChannelInitializer())
+        .connect(target.getConnectAddress());
+    return new PreparedConnection(target, connectFuture, automatic, eventLoop);
+  }
+
+  public boolean isFor(RegisteredServer server) {
+    return target.equals(server);
+  }
+
+  public boolean isAutomatic() {
+    return automatic;
+  }
+
+  /**
+   * Takes over the prepared connection. If the connection is still usable, the caller becomes
+   * responsible for it; otherwise it is closed and {@code null} is returned.
+   *
+   * @return the future for the connection, or {@code null} if it can't be used
+   */
+  public @Nullable ChannelFuture claim() {
+    if (claimed) {
+      return null;
+    }
+    claimed = true;
+    expiry.cancel(false);
+
+    if (!connectFuture.isDone()) {
+      // Still connecting, but we're ahead of a new connection anyway.
+      return connectFuture;
+    }
+    if (connectFuture.isSuccess() && connectFuture.channel().isActive()) {
+      return connectFuture;
+    }
+    connectFuture.channel().close();
+    return null;
+  }
+
+  /**
+   * Closes the prepared connection, unless it has already been claimed.
+   */
+  public void close() {
+    if (!claimed) {
+      claimed = true;
+      expiry.cancel(false);
+      connectFuture.channel().close();
+    }
+  }
+}
@@ -77,8 +77,13 @@ public class TransitionSessionHandler implements MinecraftSessionHandler {
       serverConn.getPlayer().sendKeepAlive();
     }
 
+    // The previous server may have stopped us from reading from the player while it was behind.
+    // Writability events are not fired on close, so lift that here.
+    serverConn.getPlayer().getConnection()
+        .resumeReading(MinecraftConnection.ReadPause.BACKPRESSURE);
+
     // The goods are in hand! We got JoinGame. Let's transition completely to the new state.
-    smc.setAutoReading(false);
+    smc.pauseReading(MinecraftConnection.ReadPause.TRANSITION);
     server.getEventManager()
         .fire(new ServerConnectedEvent(serverConn.getPlayer(), serverConn.getServer(),
             existingConnection != null ? existingConnection.getServer() : null))
@@ -107,7 +112,7 @@ public class TransitionSessionHandler implements MinecraftSessionHandler {
           smc.setSessionHandler(new BackendPlaySessionHandler(server, serverConn));
 
           // Clean up disabling auto-read while the connected event was being processed.
-          smc.setAutoReading(true);
+          smc.resumeReading(MinecraftConnection.ReadPause.TRANSITION);
 
           // Now set the connected server.
           serverConn.getPlayer().setConnectedServer(serverConn);
@@ -25,7 +25,9 @@ import com.velocitypowered.proxy.protocol.packet.ServerLogin;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import java.nio.channels.ClosedChannelException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -63,31 +65,48 @@ public class VelocityServerConnection implements MinecraftConnectionAssociation,
    *         whether or not the connect succeeded
    */
   public CompletableFuture<Impl> connect() {
+    return connect(null);
+  }
+
+  /**
+   * Connects to the server, reusing a connection opened ahead of time if one is provided.
+   * @param prepared a connection to the server opened by a {@link PreparedConnection}, or
+   *                 {@code null} to open a new connection
+   * @return a {@link com.velocitypowered.api.proxy.ConnectionRequestBuilder.Result} representing
+   *         whether or not the connect succeeded
+   */
+  public CompletableFuture<Impl> connect(@Nullable ChannelFuture prepared) {
     CompletableFuture<Impl> result = new CompletableFuture<>();
     // Note: we use the event loop for the connection the player is on. This reduces context
     // switches.
-    server.createBootstrap(proxyPlayer.getConnection().eventLoop())
-        .handler(server.getBackendChannelInitializer())
-        .connect(registeredServer.getServerInfo().getAddress())
-        .addListener((ChannelFutureListener) future -> {
-          if (future.isSuccess()) {
-            connection = new MinecraftConnection(future.channel(), server);
-            connection.setAssociation(VelocityServerConnection.this);
-            future.channel().pipeline().addLast(HANDLER, connection);
-
-            // Kick off the connection process
-            connection.setSessionHandler(
-                new LoginSessionHandler(server, VelocityServerConnection.this, result));
-
-            // Set the connection phase, which may, for future forge (or whatever), be determined
-            // at this point already
-            connectionPhase = connection.getType().getInitialBackendPhase();
-            startHandshake();
-          } else {
-            // Complete the result immediately. ConnectedPlayer will reset the in-flight connection.
-            result.completeExceptionally(future.cause());
-          }
-        });
+    ChannelFuture connectFuture = prepared;
+    if (connectFuture == null) {
+      connectFuture = server.createBootstrap(proxyPlayer.getConnection().eventLoop())
+          .handler(server.getBackendChannelInitializer())
+          .connect(registeredServer.getConnectAddress());
+    }
+    connectFuture.addListener((ChannelFutureListener) future -> {
+      if (future.isSuccess() && !future.channel().isActive()) {
+        // A prepared connection may have been closed by the server in the meantime.
+        result.completeExceptionally(new ClosedChannelException());
+      } else if (future.isSuccess()) {
+        connection = new MinecraftConnection(future.channel(), server);
+        connection.setAssociation(VelocityServerConnection.this);
+        future.channel().pipeline().addLast(HANDLER, connection);
+
+        // Kick off the connection process
+        connection.setSessionHandler(
+            new LoginSessionHandler(server, VelocityServerConnection.this, result));
+
+        // Set the connection phase, which may, for future forge (or whatever), be determined
+        // at this point already
+        connectionPhase = connection.getType().getInitialBackendPhase();
+        startHandshake();
+      } else {
+        // Complete the result immediately. ConnectedPlayer will reset the in-flight connection.
+        result.completeExceptionally(future.cause());
+      }
+    });
     return result;
   }
 
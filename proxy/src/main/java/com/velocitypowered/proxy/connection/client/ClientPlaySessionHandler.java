@@ -32,8 +32,6 @@ import com.velocitypowered.proxy.protocol.packet.TabCompleteResponse.Offer;
 import com.velocitypowered.proxy.protocol.packet.TitlePacket;
 import com.velocitypowered.proxy.protocol.util.PluginMessageUtil;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufUtil;
-import io.netty.buffer.Unpooled;
 import io.netty.util.ReferenceCountUtil;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -209,13 +207,19 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
             if (id == null) {
               backendConn.write(packet.retain());
             } else {
-              byte[] copy = ByteBufUtil.getBytes(packet.content());
               PluginMessageEvent event = new PluginMessageEvent(player, serverConn, id,
-                  ByteBufUtil.getBytes(packet.content()));
-              server.getEventManager().fire(event).thenAcceptAsync(pme -> {
-                PluginMessage message = new PluginMessage(packet.getChannel(),
-                    Unpooled.wrappedBuffer(copy));
-                backendConn.write(message);
+                  packet.content().nioBuffer());
+              packet.retain();
+              server.getEventManager().fire(event).whenCompleteAsync((pme, throwable) -> {
+                if (throwable != null) {
+                  logger.error("Unable to fire plugin message event for {}", player, throwable);
+                }
+                // write() releases the packet if the server has gone away in the meantime.
+                if (pme != null && pme.getResult().isAllowed()) {
+                  backendConn.write(packet);
+                } else {
+                  packet.release();
+                }
               }, backendConn.eventLoop());
             }
           }
@@ -282,7 +286,11 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
       boolean writable = player.getConnection().getChannel().isWritable();
       MinecraftConnection smc = serverConn.getConnection();
       if (smc != null) {
-        smc.setAutoReading(writable);
+        if (writable) {
+          smc.resumeReading(MinecraftConnection.ReadPause.BACKPRESSURE);
+        } else {
+          smc.pauseReading(MinecraftConnection.ReadPause.BACKPRESSURE);
+        }
       }
     }
   }
@@ -33,6 +33,7 @@ import com.velocitypowered.api.util.title.Titles;
 import com.velocitypowered.proxy.VelocityServer;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
 import com.velocitypowered.proxy.connection.MinecraftConnectionAssociation;
+import com.velocitypowered.proxy.connection.backend.PreparedConnection;
 import com.velocitypowered.proxy.connection.backend.VelocityServerConnection;
 import com.velocitypowered.proxy.connection.forge.legacy.LegacyForgeConstants;
 import com.velocitypowered.proxy.connection.util.ConnectionMessages;
@@ -47,12 +48,16 @@ import com.velocitypowered.proxy.protocol.packet.ResourcePackRequest;
 import com.velocitypowered.proxy.protocol.packet.TitlePacket;
 import com.velocitypowered.proxy.protocol.util.PluginMessageUtil;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
+import com.velocitypowered.proxy.server.VelocityServerHealth;
 import com.velocitypowered.proxy.tablist.VelocityTabList;
 import com.velocitypowered.proxy.tablist.VelocityTabListLegacy;
+import com.velocitypowered.proxy.util.CachingPermissionFunction;
 import com.velocitypowered.proxy.util.VelocityMessages;
 import com.velocitypowered.proxy.util.collect.CappedSet;
+import com.velocitypowered.proxy.util.except.QuietException;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
 import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.Collections;
@@ -95,6 +100,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
   private final boolean onlineMode;
   private @Nullable VelocityServerConnection connectedServer;
   private @Nullable VelocityServerConnection connectionInFlight;
+  private @Nullable PreparedConnection preparedConnection;
   private @Nullable PlayerSettings settings;
   private @Nullable ModInfo modInfo;
   private final VelocityTabList tabList;
@@ -109,7 +115,8 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
       @Nullable InetSocketAddress virtualHost, boolean onlineMode) {
     this.server = server;
     if (connection.getProtocolVersion().compareTo(ProtocolVersion.MINECRAFT_1_8) >= 0) {
-      this.tabList = new VelocityTabList(connection);
+      this.tabList = new VelocityTabList(connection,
+          server.getConfiguration().isBatchTabListUpdates());
     } else {
       this.tabList = new VelocityTabListLegacy(connection);
     }
@@ -204,6 +211,10 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
   }
 
   void setPermissionFunction(PermissionFunction permissionFunction) {
+    int cacheSize = server.getConfiguration().getPermissionCacheSize();
+    if (cacheSize > 0) {
+      permissionFunction = new CachingPermissionFunction(permissionFunction, cacheSize);
+    }
     this.permissionFunction = permissionFunction;
   }
 
@@ -506,16 +517,29 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
    * @return the next server to try
    */
   private Optional<RegisteredServer> getNextServerToTry(@Nullable RegisteredServer current) {
+    int next = findNextServerToTry(current);
+    if (next == -1) {
+      return Optional.empty();
+    }
+    tryIndex = next;
+    return server.getServer(getServersToTry().get(next));
+  }
+
+  private List<String> getServersToTry() {
     if (serversToTry == null) {
       String virtualHostStr = getVirtualHost().map(InetSocketAddress::getHostString).orElse("");
-      serversToTry = server.getConfiguration().getForcedHosts().getOrDefault(virtualHostStr,
+      List<String> group = server.getConfiguration().getForcedHosts().getOrDefault(virtualHostStr,
           Collections.emptyList());
+      if (group.isEmpty()) {
+        group = server.getConfiguration().getAttemptConnectionOrder();
+      }
+      serversToTry = server.getServerBalancer().order(group);
     }
+    return serversToTry;
+  }
 
-    if (serversToTry.isEmpty()) {
-      serversToTry = server.getConfiguration().getAttemptConnectionOrder();
-    }
-
+  private int findNextServerToTry(@Nullable RegisteredServer current) {
+    List<String> serversToTry = getServersToTry();
     for (int i = tryIndex; i < serversToTry.size(); i++) {
       String toTryName = serversToTry.get(i);
       if ((connectedServer != null && hasSameName(connectedServer.getServer(), toTryName))
@@ -523,11 +547,73 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
           || (current != null && hasSameName(current, toTryName))) {
         continue;
       }
+      Optional<RegisteredServer> toTry = server.getServer(toTryName);
+      if (toTry.isPresent() && !((VelocityRegisteredServer) toTry.get()).getHealth()
+          .isAcceptingConnections()) {
+        // Don't send the player to a server that is known to be down.
+        continue;
+      }
+      return i;
+    }
+    return -1;
+  }
+
+  /**
+   * If the player is connecting to a server from the list of servers to try, starts connecting to
+   * the server that would be tried next, so falling back to it is faster if this attempt fails.
+   *
+   * @param destination the server the player is connecting to
+   */
+  private void prepareFallbackConnection(RegisteredServer destination) {
+    List<String> serversToTry = getServersToTry();
+    if (tryIndex >= serversToTry.size()
+        || !hasSameName(destination, serversToTry.get(tryIndex))) {
+      // The player isn't following the list of servers to try.
+      return;
+    }
 
-      tryIndex = i;
-      return server.getServer(toTryName);
+    int next = findNextServerToTry(destination);
+    if (next != -1) {
+      server.getServer(serversToTry.get(next)).ifPresent(fallback -> prepareConnection0(
+          (VelocityRegisteredServer) fallback, true));
     }
-    return Optional.empty();
+  }
+
+  @Override
+  public void prepareConnection(RegisteredServer target) {
+    Preconditions.checkNotNull(target, "target");
+    Preconditions.checkArgument(target instanceof VelocityRegisteredServer,
+        "Not a valid Velocity server.");
+    connection.eventLoop().execute(() -> prepareConnection0((VelocityRegisteredServer) target,
+        false));
+  }
+
+  private void prepareConnection0(VelocityRegisteredServer target, boolean automatic) {
+    if (!isActive() || (connectedServer != null && connectedServer.getServer().equals(target))) {
+      return;
+    }
+    if (preparedConnection != null) {
+      if (preparedConnection.isFor(target)) {
+        return;
+      }
+      preparedConnection.close();
+    }
+    preparedConnection = PreparedConnection.open(server, this, target, automatic);
+  }
+
+  /**
+   * Takes the connection prepared for the {@code target} server, if there is one.
+   *
+   * @param target the server being connected to
+   * @return the prepared connection, or {@code null} if there is none
+   */
+  private @Nullable ChannelFuture claimPreparedConnection(RegisteredServer target) {
+    PreparedConnection prepared = this.preparedConnection;
+    if (prepared == null || !prepared.isFor(target)) {
+      return null;
+    }
+    this.preparedConnection = null;
+    return prepared.claim();
   }
 
   private static boolean hasSameName(RegisteredServer server, String name) {
@@ -543,6 +629,12 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
     this.connectedServer = serverConnection;
     this.tryIndex = 0; // reset since we got connected to a server
 
+    if (preparedConnection != null && preparedConnection.isAutomatic()) {
+      // We won't need to fall back anymore.
+      preparedConnection.close();
+      preparedConnection = null;
+    }
+
     if (serverConnection == connectionInFlight) {
       connectionInFlight = null;
     }
@@ -567,6 +659,10 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
   }
 
   void teardown() {
+    if (preparedConnection != null) {
+      preparedConnection.close();
+      preparedConnection = null;
+    }
     if (connectionInFlight != null) {
       connectionInFlight.disconnect();
     }
@@ -594,6 +690,14 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
     return permissionFunction.getPermissionValue(permission);
   }
 
+  @Override
+  public void invalidatePermissionCache() {
+    PermissionFunction function = this.permissionFunction;
+    if (function instanceof CachingPermissionFunction) {
+      ((CachingPermissionFunction) function).invalidate();
+    }
+  }
+
   @Override
   public boolean sendPluginMessage(ChannelIdentifier identifier, byte[] data) {
     Preconditions.checkNotNull(identifier, "identifier");
@@ -754,11 +858,30 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
                   }
 
                   VelocityRegisteredServer vrs = (VelocityRegisteredServer) realDestination;
+                  VelocityServerHealth health = vrs.getHealth();
+                  if (!health.tryAcquire()) {
+                    CompletableFuture<Impl> unavailable = new CompletableFuture<>();
+                    unavailable.completeExceptionally(new QuietException("Server "
+                        + vrs.getServerInfo().getName() + " is currently unavailable"));
+                    return unavailable;
+                  }
+
                   VelocityServerConnection con = new VelocityServerConnection(vrs,
                       ConnectedPlayer.this, server);
                   connectionInFlight = con;
-                  return con.connect().whenCompleteAsync((result, throwable) ->
-                      this.resetIfInFlightIs(con), connection.eventLoop());
+                  ChannelFuture prepared = claimPreparedConnection(vrs);
+                  if (server.getConfiguration().isPrepareFallbackConnections()) {
+                    prepareFallbackConnection(vrs);
+                  }
+                  long start = System.nanoTime();
+                  return con.connect(prepared).whenCompleteAsync((result, throwable) -> {
+                    if (throwable == null) {
+                      health.recordSuccess(System.nanoTime() - start);
+                    } else {
+                      health.recordFailure();
+                    }
+                    this.resetIfInFlightIs(con);
+                  }, connection.eventLoop());
                 }, connection.eventLoop());
           });
     }
@@ -115,6 +115,11 @@ public class HandshakeSessionHandler implements MinecraftSessionHandler {
       return;
     }
 
+    if (server.isDraining()) {
+      connection.closeWith(Disconnect.create(server.getConfiguration().getDrainMotdComponent()));
+      return;
+    }
+
     InetAddress address = ((InetSocketAddress) connection.getRemoteAddress()).getAddress();
     if (!server.getIpAttemptLimiter().attempt(address)) {
       connection.closeWith(
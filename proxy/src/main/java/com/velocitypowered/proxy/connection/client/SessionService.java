@@ -0,0 +1,256 @@
+package com.velocitypowered.proxy.connection.client;
+
+import static com.google.common.net.UrlEscapers.urlFormParameterEscaper;
+import static com.velocitypowered.proxy.VelocityServer.GSON;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.Response;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Asks the session server whether players logging in have joined the server. Identical requests
+ * made at the same time share a single request to the session server, and successful answers can
+ * be remembered for a short time to absorb reconnect storms.
+ */
+public final class SessionService {
+
+  private static final String HASJOINED_PATH =
+      "/session/minecraft/hasJoined?username=%s&serverId=%s";
+  private static final int MAXIMUM_CACHE_SIZE = 1024;
+
+  private final VelocityServer server;
+  private final Supplier<AsyncHttpClient> httpClient;
+  private final Map<RequestKey, CompletableFuture<Result>> inFlight = new ConcurrentHashMap<>();
+  private final Map<RequestKey, CachedProfile> cache = new ConcurrentHashMap<>();
+
+  private final LongAdder authenticated = new LongAdder();
+  private final LongAdder notAuthenticated = new LongAdder();
+  private final LongAdder unexpectedResponses = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder totalLatencyNanos = new LongAdder();
+
+  /**
+   * Creates a new session service.
+   *
+   * @param server the proxy
+   * @param httpClient supplies the HTTP client to send requests to the session server with
+   */
+  public SessionService(VelocityServer server, Supplier<AsyncHttpClient> httpClient) {
+    this.server = Preconditions.checkNotNull(server, "server");
+    this.httpClient = Preconditions.checkNotNull(httpClient, "httpClient");
+  }
+
+  /**
+   * Asks the session server whether the player {@code username} has joined the server identified
+   * by {@code serverId}.
+   *
+   * @param username the username of the player
+   * @param serverId the server ID sent to the session server by the client
+   * @param ip the IP of the player, if the session server should check that it matches
+   * @return a future completed with the answer of the session server
+   */
+  public CompletableFuture<Result> hasJoined(String username, String serverId,
+      @Nullable String ip) {
+    RequestKey key = new RequestKey(username, serverId, ip);
+    CachedProfile cached = cache.get(key);
+    if (cached != null) {
+      if (System.nanoTime() - cached.expiresAt < 0) {
+        cacheHits.increment();
+        return CompletableFuture.completedFuture(new Result(Outcome.AUTHENTICATED, 200,
+            cached.profile));
+      }
+      cache.remove(key, cached);
+    }
+
+    CompletableFuture<Result> future = new CompletableFuture<>();
+    CompletableFuture<Result> existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      return existing;
+    }
+
+    VelocityConfiguration configuration = server.getConfiguration();
+    String baseUrl = configuration.getSessionServerUrl();
+    if (baseUrl.endsWith("/")) {
+      baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+    }
+    String url = baseUrl + String.format(HASJOINED_PATH,
+        urlFormParameterEscaper().escape(username), serverId);
+    if (ip != null) {
+      url += "&ip=" + urlFormParameterEscaper().escape(ip);
+    }
+
+    long start = System.nanoTime();
+    httpClient.get().prepareGet(url)
+        .setRequestTimeout(configuration.getSessionServerTimeout())
+        .execute()
+        .toCompletableFuture()
+        .whenComplete((response, throwable) -> {
+          totalLatencyNanos.add(System.nanoTime() - start);
+          inFlight.remove(key, future);
+          if (throwable != null) {
+            failures.increment();
+            future.completeExceptionally(throwable);
+            return;
+          }
+
+          try {
+            future.complete(handleResponse(key, response));
+          } catch (Exception e) {
+            failures.increment();
+            future.completeExceptionally(e);
+          }
+        });
+    return future;
+  }
+
+  private Result handleResponse(RequestKey key, Response response) {
+    int status = response.getStatusCode();
+    if (status == 200) {
+      GameProfile profile = GSON.fromJson(response.getResponseBody(), GameProfile.class);
+      authenticated.increment();
+      int cacheTime = server.getConfiguration().getSessionCacheTime();
+      if (cacheTime > 0) {
+        if (cache.size() >= MAXIMUM_CACHE_SIZE) {
+          cache.clear();
+        }
+        cache.put(key, new CachedProfile(profile,
+            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cacheTime)));
+      }
+      return new Result(Outcome.AUTHENTICATED, status, profile);
+    } else if (status == 204) {
+      notAuthenticated.increment();
+      return new Result(Outcome.NOT_AUTHENTICATED, status, null);
+    } else {
+      unexpectedResponses.increment();
+      return new Result(Outcome.UNEXPECTED_RESPONSE, status, null);
+    }
+  }
+
+  public long getAuthenticatedCount() {
+    return authenticated.sum();
+  }
+
+  public long getNotAuthenticatedCount() {
+    return notAuthenticated.sum();
+  }
+
+  public long getUnexpectedResponseCount() {
+    return unexpectedResponses.sum();
+  }
+
+  public long getFailureCount() {
+    return failures.sum();
+  }
+
+  public long getCacheHitCount() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * Returns the average time taken by requests to the session server.
+   *
+   * @return the average latency in milliseconds, or 0 if no requests were made
+   */
+  public long getAverageLatency() {
+    long requests = authenticated.sum() + notAuthenticated.sum() + unexpectedResponses.sum()
+        + failures.sum();
+    return requests == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.sum() / requests);
+  }
+
+  public enum Outcome {
+    /**
+     * The player has joined the server, and their profile is available.
+     */
+    AUTHENTICATED,
+    /**
+     * The player has not joined the server, usually because they use an offline-mode client.
+     */
+    NOT_AUTHENTICATED,
+    /**
+     * The session server answered with an unexpected status code.
+     */
+    UNEXPECTED_RESPONSE
+  }
+
+  /**
+   * The answer of the session server.
+   */
+  public static final class Result {
+
+    private final Outcome outcome;
+    private final int statusCode;
+    private final @Nullable GameProfile profile;
+
+    private Result(Outcome outcome, int statusCode, @Nullable GameProfile profile) {
+      this.outcome = outcome;
+      this.statusCode = statusCode;
+      this.profile = profile;
+    }
+
+    public Outcome getOutcome() {
+      return outcome;
+    }
+
+    public int getStatusCode() {
+      return statusCode;
+    }
+
+    public @Nullable GameProfile getProfile() {
+      return profile;
+    }
+  }
+
+  private static final class CachedProfile {
+
+    private final GameProfile profile;
+    private final long expiresAt;
+
+    private CachedProfile(GameProfile profile, long expiresAt) {
+      this.profile = profile;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private static final class RequestKey {
+
+    private final String username;
+    private final String serverId;
+    private final @Nullable String ip;
+
+    private RequestKey(String username, String serverId, @Nullable String ip) {
+      this.username = username;
+      this.serverId = serverId;
+      this.ip = ip;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      RequestKey that = (RequestKey) o;
+      return username.equals(that.username) && serverId.equals(that.serverId)
+          && Objects.equals(ip, that.ip);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(username, serverId, ip);
+    }
+  }
+}
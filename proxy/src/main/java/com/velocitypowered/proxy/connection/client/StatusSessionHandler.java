@@ -46,7 +46,8 @@ public class StatusSessionHandler implements MinecraftSessionHandler {
             "Velocity " + ProtocolVersion.SUPPORTED_VERSION_STRING),
         new ServerPing.Players(server.getPlayerCount(), configuration.getShowMaxPlayers(),
             ImmutableList.of()),
-        configuration.getMotdComponent(),
+        server.isDraining() ? configuration.getDrainMotdComponent()
+            : configuration.getMotdComponent(),
         configuration.getFavicon().orElse(null),
         configuration.isAnnounceForge() ? ModInfo.DEFAULT : null
     );
@@ -126,7 +127,8 @@ public class StatusSessionHandler implements MinecraftSessionHandler {
         ? connection.getProtocolVersion() : ProtocolVersion.MAXIMUM_VERSION;
     PingPassthroughMode passthrough = configuration.getPingPassthrough();
 
-    if (passthrough == PingPassthroughMode.DISABLED) {
+    // Backend servers don't know the proxy is draining, so don't pass their pings through.
+    if (passthrough == PingPassthroughMode.DISABLED || server.isDraining()) {
       return CompletableFuture.completedFuture(constructLocalPing(shownVersion));
     } else {
       String virtualHostStr = inbound.getVirtualHost().map(InetSocketAddress::getHostString)
@@ -0,0 +1,126 @@
+package com.velocitypowered.proxy.network;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.EventLoop;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.handler.codec.dns.DefaultDnsQuestion;
+import io.netty.handler.codec.dns.DnsRawRecord;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.Future;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Resolves backend server hostnames along with how long the answer may be cached for, so that
+ * resolved addresses can be reused until their DNS records expire.
+ */
+public final class BackendAddressResolver {
+
+  /**
+   * The TTL used when the answer did not come with one, such as IPv6-only hosts.
+   */
+  private static final long DEFAULT_TTL_SECONDS = 30;
+  private static final long MIN_TTL_SECONDS = 1;
+  private static final long MAX_TTL_SECONDS = 300;
+
+  private final DnsNameResolver resolver;
+
+  BackendAddressResolver(EventLoop eventLoop, Class<? extends DatagramChannel> channelType) {
+    this.resolver = new DnsNameResolverBuilder(eventLoop)
+        .channelType(channelType)
+        .negativeTtl(15)
+        .ndots(1)
+        .build();
+  }
+
+  /**
+   * Resolves the specified {@code host}.
+   *
+   * @param host the host to resolve
+   * @return a future completed with the resolved address and its TTL
+   */
+  public CompletableFuture<Resolution> resolve(String host) {
+    Preconditions.checkNotNull(host, "host");
+    CompletableFuture<Resolution> result = new CompletableFuture<>();
+    resolver.resolveAll(new DefaultDnsQuestion(host, DnsRecordType.A))
+        .addListener((Future<List<DnsRecord>> future) -> {
+          if (future.isSuccess()) {
+            Resolution resolution = fromRecords(host, future.getNow());
+            if (resolution != null) {
+              result.complete(resolution);
+              return;
+            }
+          }
+
+          // No usable A records. Fall back to a regular lookup, which also handles IPv6 hosts.
+          resolver.resolve(host).addListener((Future<InetAddress> fallback) -> {
+            if (fallback.isSuccess()) {
+              result.complete(new Resolution(fallback.getNow(), DEFAULT_TTL_SECONDS));
+            } else {
+              result.completeExceptionally(fallback.cause());
+            }
+          });
+        });
+    return result;
+  }
+
+  private static @Nullable Resolution fromRecords(String host, List<DnsRecord> records) {
+    Resolution resolution = null;
+    try {
+      for (DnsRecord record : records) {
+        if (resolution == null && record.type() == DnsRecordType.A
+            && record instanceof DnsRawRecord) {
+          ByteBuf content = ((DnsRawRecord) record).content();
+          if (content.readableBytes() == 4) {
+            byte[] address = new byte[4];
+            content.getBytes(content.readerIndex(), address);
+            resolution = new Resolution(InetAddress.getByAddress(host, address),
+                record.timeToLive());
+          }
+        }
+      }
+    } catch (UnknownHostException e) {
+      // Can't happen, the address has the correct length.
+      throw new AssertionError(e);
+    } finally {
+      for (DnsRecord record : records) {
+        ReferenceCountUtil.release(record);
+      }
+    }
+    return resolution;
+  }
+
+  void close() {
+    resolver.close();
+  }
+
+  /**
+   * A resolved address and the number of seconds it may be cached for.
+   */
+  public static final class Resolution {
+
+    private final InetAddress address;
+    private final long ttlSeconds;
+
+    Resolution(InetAddress address, long ttlSeconds) {
+      this.address = address;
+      this.ttlSeconds = Math.max(MIN_TTL_SECONDS, Math.min(MAX_TTL_SECONDS, ttlSeconds));
+    }
+
+    public InetAddress getAddress() {
+      return address;
+    }
+
+    public long getTtlSeconds() {
+      return ttlSeconds;
+    }
+  }
+}
@@ -4,26 +4,41 @@ import static org.asynchttpclient.Dsl.asyncHttpClient;
 import static org.asynchttpclient.Dsl.config;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
 import com.velocitypowered.natives.util.Natives;
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.network.netty.DnsAddressResolverGroupNameResolverAdapter;
 import com.velocitypowered.proxy.protocol.netty.GS4QueryHandler;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.unix.UnixChannelOption;
+import io.netty.incubator.channel.uring.IOUringChannelOption;
 import io.netty.resolver.dns.DnsAddressResolverGroup;
 import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import java.net.InetSocketAddress;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.DefaultAsyncHttpClientConfig;
 import org.asynchttpclient.RequestBuilder;
 import org.asynchttpclient.filter.FilterContext;
 import org.asynchttpclient.filter.FilterContext.FilterContextBuilder;
@@ -33,13 +48,16 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class ConnectionManager {
 
-  private static final WriteBufferWaterMark SERVER_WRITE_MARK = new WriteBufferWaterMark(1 << 20,
-      1 << 21);
   private static final Logger LOGGER = LogManager.getLogger(ConnectionManager.class);
-  private final Map<InetSocketAddress, Channel> endpoints = new HashMap<>();
+  private static final int SESSION_CONNECT_TIMEOUT = 5000;
+  private static final int SESSION_IDLE_TIMEOUT = 60000;
+  private final ListMultimap<InetSocketAddress, Channel> endpoints = Multimaps
+      .synchronizedListMultimap(Multimaps.newListMultimap(new LinkedHashMap<>(), ArrayList::new));
   private final TransportType transportType;
   private final EventLoopGroup bossGroup;
   private final EventLoopGroup workerGroup;
+  private final ChannelGroup clientChannels = new DefaultChannelGroup("clients",
+      GlobalEventExecutor.INSTANCE);
   private final VelocityServer server;
   // These are intentionally made public for plugins like ViaVersion, which inject their own
   // protocol logic into the proxy.
@@ -49,7 +67,9 @@ public final class ConnectionManager {
   public final BackendChannelInitializerHolder backendChannelInitializer;
 
   private final DnsAddressResolverGroup resolverGroup;
-  private final AsyncHttpClient httpClient;
+  private final BackendAddressResolver backendAddressResolver;
+  private final Supplier<AsyncHttpClient> httpClient;
+  private final Supplier<AsyncHttpClient> sessionHttpClient;
 
   /**
    * Initalizes the {@code ConnectionManager}.
@@ -69,7 +89,21 @@ public final class ConnectionManager {
         .channelType(this.transportType.datagramChannelClass)
         .negativeTtl(15)
         .ndots(1));
-    this.httpClient = asyncHttpClient(config()
+    this.backendAddressResolver = new BackendAddressResolver(this.workerGroup.next(),
+        this.transportType.datagramChannelClass);
+    // The HTTP clients are created on first use, since many proxies never need one of them.
+    this.httpClient = Suppliers.memoize(() -> asyncHttpClient(createHttpClientConfig().build()));
+    // Logins should not have to wait for other requests, so the session server gets its own
+    // connection pool.
+    this.sessionHttpClient = Suppliers.memoize(() -> asyncHttpClient(createHttpClientConfig()
+        .setKeepAlive(true)
+        .setConnectTimeout(SESSION_CONNECT_TIMEOUT)
+        .setPooledConnectionIdleTimeout(SESSION_IDLE_TIMEOUT)
+        .build()));
+  }
+
+  private DefaultAsyncHttpClientConfig.Builder createHttpClientConfig() {
+    return config()
         .setEventLoopGroup(this.workerGroup)
         .setUserAgent(server.getVersion().getName() + "/" + server.getVersion().getVersion())
         .addRequestFilter(new RequestFilter() {
@@ -83,8 +117,7 @@ public final class ConnectionManager {
                     .build())
                 .build();
           }
-        })
-        .build());
+        });
   }
 
   public void logChannelInformation() {
@@ -93,34 +126,73 @@ public final class ConnectionManager {
   }
 
   /**
-   * Binds a Minecraft listener to the specified {@code address}.
+   * Binds a Minecraft listener to the specified {@code address}. If {@code SO_REUSEPORT} is
+   * enabled and supported, one listener is opened per worker event loop so that the kernel can
+   * balance incoming connections across all of them.
    *
    * @param address the address to bind to
+   * @param configuration the configuration to take the socket options from, which may not be
+   *                      installed yet while the configuration is being reloaded
    */
-  public void bind(final InetSocketAddress address) {
+  public void bind(final InetSocketAddress address, final VelocityConfiguration configuration) {
     final ServerBootstrap bootstrap = new ServerBootstrap()
         .channel(this.transportType.serverSocketChannelClass)
         .group(this.bossGroup, this.workerGroup)
-        .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, SERVER_WRITE_MARK)
-        .childHandler(this.serverChannelInitializer.get())
+        .childHandler(new ClientChannelTracker(this.serverChannelInitializer.get()))
         .childOption(ChannelOption.TCP_NODELAY, true)
         .childOption(ChannelOption.IP_TOS, 0x18)
         .localAddress(address);
 
-    if (transportType == TransportType.EPOLL && server.getConfiguration().useTcpFastOpen()) {
-      bootstrap.option(EpollChannelOption.TCP_FASTOPEN, 3);
+    if (configuration.useTcpFastOpen()) {
+      if (transportType == TransportType.EPOLL) {
+        bootstrap.option(EpollChannelOption.TCP_FASTOPEN, 3);
+      } else if (transportType == TransportType.IO_URING) {
+        bootstrap.option(IOUringChannelOption.TCP_FASTOPEN, 3);
+      }
     }
 
-    bootstrap.bind()
-        .addListener((ChannelFutureListener) future -> {
-          final Channel channel = future.channel();
-          if (future.isSuccess()) {
-            this.endpoints.put(address, channel);
-            LOGGER.info("Listening on {}", channel.localAddress());
-          } else {
-            LOGGER.error("Can't bind to {}", address, future.cause());
-          }
-        });
+    int listeners = 1;
+    if (configuration.useReusePort()) {
+      if (transportType.isLinuxNative()) {
+        // Each listener is registered on (and accepts on) its own worker event loop.
+        listeners = Iterables.size(this.workerGroup);
+        bootstrap.group(this.workerGroup, this.workerGroup)
+            .option(UnixChannelOption.SO_REUSEPORT, true);
+      } else {
+        LOGGER.warn("SO_REUSEPORT was requested but is only supported with epoll or io_uring; "
+            + "binding a single listener on {}", address);
+      }
+    }
+
+    for (int i = 0; i < listeners; i++) {
+      bootstrap.bind()
+          .addListener((ChannelFutureListener) future -> {
+            final Channel channel = future.channel();
+            if (future.isSuccess()) {
+              boolean first;
+              synchronized (this.endpoints) {
+                first = !this.endpoints.containsKey(address);
+                this.endpoints.put(address, channel);
+              }
+              if (first) {
+                LOGGER.info("Listening on {}", channel.localAddress());
+              } else {
+                LOGGER.debug("Opened additional listener on {}", channel.localAddress());
+              }
+            } else {
+              LOGGER.error("Can't bind to {}", address, future.cause());
+            }
+          });
+    }
+  }
+
+  /**
+   * Reports how much memory the connections of clients currently use.
+   *
+   * @return the report
+   */
+  public ConnectionMemoryReport createMemoryReport() {
+    return ConnectionMemoryReport.create(this.clientChannels);
   }
 
   /**
@@ -161,10 +233,17 @@ public final class ConnectionManager {
         .option(ChannelOption.TCP_NODELAY, true)
         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
             this.server.getConfiguration().getConnectTimeout())
+        .option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+            this.server.getConfiguration().getServerWriteBufferLowWatermark(),
+            this.server.getConfiguration().getServerWriteBufferHighWatermark()))
         .group(group == null ? this.workerGroup : group)
         .resolver(this.resolverGroup);
-    if (transportType == TransportType.EPOLL && server.getConfiguration().useTcpFastOpen()) {
-      bootstrap.option(EpollChannelOption.TCP_FASTOPEN_CONNECT, true);
+    if (server.getConfiguration().useTcpFastOpen()) {
+      if (transportType == TransportType.EPOLL) {
+        bootstrap.option(EpollChannelOption.TCP_FASTOPEN_CONNECT, true);
+      } else if (transportType == TransportType.IO_URING) {
+        bootstrap.option(IOUringChannelOption.TCP_FASTOPEN_CONNECT, true);
+      }
     }
     return bootstrap;
   }
@@ -175,17 +254,23 @@ public final class ConnectionManager {
    * @param oldBind the endpoint to close
    */
   public void close(InetSocketAddress oldBind) {
-    Channel serverChannel = endpoints.remove(oldBind);
-    Preconditions.checkState(serverChannel != null, "Endpoint %s not registered", oldBind);
-    LOGGER.info("Closing endpoint {}", serverChannel.localAddress());
-    serverChannel.close().syncUninterruptibly();
+    List<Channel> serverChannels = endpoints.removeAll(oldBind);
+    Preconditions.checkState(!serverChannels.isEmpty(), "Endpoint %s not registered", oldBind);
+    LOGGER.info("Closing endpoint {}", serverChannels.get(0).localAddress());
+    for (Channel serverChannel : serverChannels) {
+      serverChannel.close().syncUninterruptibly();
+    }
   }
 
   /**
    * Closes all endpoints.
    */
   public void shutdown() {
-    for (final Channel endpoint : this.endpoints.values()) {
+    List<Channel> channels;
+    synchronized (this.endpoints) {
+      channels = ImmutableList.copyOf(this.endpoints.values());
+    }
+    for (final Channel endpoint : channels) {
       try {
         LOGGER.info("Closing endpoint {}", endpoint.localAddress());
         endpoint.close().sync();
@@ -194,21 +279,54 @@ public final class ConnectionManager {
         Thread.currentThread().interrupt();
       }
     }
+    this.backendAddressResolver.close();
   }
 
   public EventLoopGroup getBossGroup() {
     return bossGroup;
   }
 
+  public EventLoopGroup getWorkerGroup() {
+    return workerGroup;
+  }
+
   public ServerChannelInitializerHolder getServerChannelInitializer() {
     return this.serverChannelInitializer;
   }
 
+  public BackendAddressResolver getBackendAddressResolver() {
+    return backendAddressResolver;
+  }
+
   public AsyncHttpClient getHttpClient() {
-    return httpClient;
+    return httpClient.get();
+  }
+
+  public AsyncHttpClient getSessionHttpClient() {
+    return sessionHttpClient.get();
   }
 
   public BackendChannelInitializerHolder getBackendChannelInitializer() {
     return this.backendChannelInitializer;
   }
+
+  /**
+   * Adds every accepted client channel to {@link #clientChannels} before handing it to the
+   * server channel initializer, so that channels are tracked even if a plugin has replaced the
+   * initializer.
+   */
+  private final class ClientChannelTracker extends ChannelInitializer<Channel> {
+
+    private final ChannelInitializer<Channel> delegate;
+
+    private ClientChannelTracker(ChannelInitializer<Channel> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    protected void initChannel(Channel ch) {
+      clientChannels.add(ch);
+      ch.pipeline().addLast(delegate);
+    }
+  }
 }
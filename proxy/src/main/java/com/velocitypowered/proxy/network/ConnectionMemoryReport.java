@@ -0,0 +1,200 @@
+package com.velocitypowered.proxy.network;
+
+import com.google.common.base.MoreObjects;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetric;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import java.time.Duration;
+
+/**
+ * A snapshot of how much memory the connections of clients use. The snapshot is taken without
+ * synchronizing with the event loops of the connections, so it is only an estimate.
+ */
+public final class ConnectionMemoryReport {
+
+  private final int connections;
+  private final int preLoginConnections;
+  private final long bufferedBytes;
+  private final int unwritableConnections;
+  private final long pendingWriteBytes;
+  private final Duration longestUnwritableTime;
+  private final Duration totalUnwritableTime;
+  private final long usedHeapMemory;
+  private final long usedDirectMemory;
+
+  private ConnectionMemoryReport(int connections, int preLoginConnections, long bufferedBytes,
+      int unwritableConnections, long pendingWriteBytes, Duration longestUnwritableTime,
+      Duration totalUnwritableTime, long usedHeapMemory, long usedDirectMemory) {
+    this.connections = connections;
+    this.preLoginConnections = preLoginConnections;
+    this.bufferedBytes = bufferedBytes;
+    this.unwritableConnections = unwritableConnections;
+    this.pendingWriteBytes = pendingWriteBytes;
+    this.longestUnwritableTime = longestUnwritableTime;
+    this.totalUnwritableTime = totalUnwritableTime;
+    this.usedHeapMemory = usedHeapMemory;
+    this.usedDirectMemory = usedDirectMemory;
+  }
+
+  /**
+   * Takes a snapshot of the specified client {@code channels}.
+   *
+   * @param channels the channels of the connected clients
+   * @return the report
+   */
+  public static ConnectionMemoryReport create(Iterable<Channel> channels) {
+    int connections = 0;
+    int preLoginConnections = 0;
+    long bufferedBytes = 0;
+    int unwritableConnections = 0;
+    long pendingWriteBytes = 0;
+    Duration longestUnwritableTime = Duration.ZERO;
+    Duration totalUnwritableTime = Duration.ZERO;
+    for (Channel channel : channels) {
+      connections++;
+      MinecraftConnection connection = channel.pipeline().get(MinecraftConnection.class);
+      if (connection == null || connection.getState() != StateRegistry.PLAY) {
+        preLoginConnections++;
+      }
+      if (connection != null) {
+        totalUnwritableTime = totalUnwritableTime.plus(connection.getUnwritableTime());
+      }
+      if (!channel.isWritable()) {
+        unwritableConnections++;
+        if (connection != null) {
+          Duration unwritableTime = connection.getCurrentUnwritableTime();
+          if (unwritableTime.compareTo(longestUnwritableTime) > 0) {
+            longestUnwritableTime = unwritableTime;
+          }
+        }
+      }
+      ChannelOutboundBuffer outboundBuffer = channel.unsafe().outboundBuffer();
+      if (outboundBuffer != null) {
+        pendingWriteBytes += outboundBuffer.totalPendingWriteBytes();
+      }
+      MinecraftVarintFrameDecoder frameDecoder = channel.pipeline()
+          .get(MinecraftVarintFrameDecoder.class);
+      if (frameDecoder != null) {
+        bufferedBytes += frameDecoder.getBufferedBytes();
+      }
+    }
+
+    long usedHeapMemory = -1;
+    long usedDirectMemory = -1;
+    if (ByteBufAllocator.DEFAULT instanceof ByteBufAllocatorMetricProvider) {
+      ByteBufAllocatorMetric metric = ((ByteBufAllocatorMetricProvider) ByteBufAllocator.DEFAULT)
+          .metric();
+      usedHeapMemory = metric.usedHeapMemory();
+      usedDirectMemory = metric.usedDirectMemory();
+    }
+    return new ConnectionMemoryReport(connections, preLoginConnections, bufferedBytes,
+        unwritableConnections, pendingWriteBytes, longestUnwritableTime, totalUnwritableTime,
+        usedHeapMemory, usedDirectMemory);
+  }
+
+  public int getConnections() {
+    return connections;
+  }
+
+  public int getPreLoginConnections() {
+    return preLoginConnections;
+  }
+
+  /**
+   * Returns how many bytes of incomplete frames the connections are holding on to.
+   *
+   * @return the number of buffered bytes
+   */
+  public long getBufferedBytes() {
+    return bufferedBytes;
+  }
+
+  /**
+   * Returns how many connections can't keep up with the packets sent to them.
+   *
+   * @return the number of unwritable connections
+   */
+  public int getUnwritableConnections() {
+    return unwritableConnections;
+  }
+
+  /**
+   * Returns how many bytes are waiting to be sent to the clients.
+   *
+   * @return the number of pending bytes
+   */
+  public long getPendingWriteBytes() {
+    return pendingWriteBytes;
+  }
+
+  /**
+   * Returns how long the connection that has been unwritable for the longest time has been
+   * unwritable.
+   *
+   * @return the longest time a connection has been unwritable
+   */
+  public Duration getLongestUnwritableTime() {
+    return longestUnwritableTime;
+  }
+
+  /**
+   * Returns how long the connections have been unwritable in total, since they were opened.
+   *
+   * @return the total time the connections have been unwritable
+   */
+  public Duration getTotalUnwritableTime() {
+    return totalUnwritableTime;
+  }
+
+  /**
+   * Returns how much heap memory the buffer allocator uses, for clients and servers alike.
+   *
+   * @return the used heap memory in bytes, or {@code -1} if the allocator doesn't track it
+   */
+  public long getUsedHeapMemory() {
+    return usedHeapMemory;
+  }
+
+  /**
+   * Returns how much direct memory the buffer allocator uses, for clients and servers alike.
+   *
+   * @return the used direct memory in bytes, or {@code -1} if the allocator doesn't track it
+   */
+  public long getUsedDirectMemory() {
+    return usedDirectMemory;
+  }
+
+  /**
+   * Returns the buffer memory, heap and direct, used by the allocator divided by the number of
+   * client connections. The allocator also holds the buffers of the connections to backend
+   * servers, so this is the cost of a client together with its backend connection.
+   *
+   * @return the average buffer memory per connection in bytes, or {@code -1} if unknown
+   */
+  public long getBufferMemoryPerConnection() {
+    if (connections == 0 || usedHeapMemory < 0 || usedDirectMemory < 0) {
+      return -1;
+    }
+    return (usedHeapMemory + usedDirectMemory) / connections;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("connections", connections)
+        .add("preLoginConnections", preLoginConnections)
+        .add("bufferedBytes", bufferedBytes)
+        .add("unwritableConnections", unwritableConnections)
+        .add("pendingWriteBytes", pendingWriteBytes)
+        .add("longestUnwritableTime", longestUnwritableTime)
+        .add("totalUnwritableTime", totalUnwritableTime)
+        .add("usedHeapMemory", usedHeapMemory)
+        .add("usedDirectMemory", usedDirectMemory)
+        .toString();
+  }
+}
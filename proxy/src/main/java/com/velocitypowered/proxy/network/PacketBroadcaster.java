@@ -0,0 +1,261 @@
+package com.velocitypowered.proxy.network;
+
+import static com.velocitypowered.proxy.network.Connections.CIPHER_ENCODER;
+import static com.velocitypowered.proxy.network.Connections.COMPRESSION_ENCODER;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.natives.util.Natives;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.ProtocolUtils.Direction;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.MinecraftCompressEncoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Sends the same packet to many players at once. Each packet is encoded (and compressed, if
+ * needed) only once per protocol version and compression threshold, and the encoded frames are
+ * then shared between every recipient. Writes are batched per event loop, so each event loop only
+ * has to run a single task for the whole broadcast.
+ */
+public final class PacketBroadcaster {
+
+  private static final Logger logger = LogManager.getLogger(PacketBroadcaster.class);
+
+  private final VelocityServer server;
+
+  public PacketBroadcaster(VelocityServer server) {
+    this.server = Preconditions.checkNotNull(server, "server");
+  }
+
+  /**
+   * Broadcasts the same {@code packet} to all the specified {@code players}.
+   *
+   * @param players the players to send the packet to
+   * @param packet the packet to send
+   */
+  public void broadcast(Iterable<? extends ConnectedPlayer> players, MinecraftPacket packet) {
+    Preconditions.checkNotNull(packet, "packet");
+    broadcast(players, version -> packet);
+  }
+
+  /**
+   * Broadcasts a packet to all the specified {@code players}. The {@code packetFactory} is called
+   * at most once for each protocol version in use by the players.
+   *
+   * @param players the players to send the packet to
+   * @param packetFactory creates the packet to send to players of a given protocol version
+   */
+  public void broadcast(Iterable<? extends ConnectedPlayer> players,
+      Function<ProtocolVersion, ? extends MinecraftPacket> packetFactory) {
+    Preconditions.checkNotNull(players, "players");
+    Preconditions.checkNotNull(packetFactory, "packetFactory");
+
+    Map<ProtocolVersion, MinecraftPacket> packets = new EnumMap<>(ProtocolVersion.class);
+    Map<EncodingKey, ByteBuf> encoded = new HashMap<>();
+    Map<EventLoop, List<PendingWrite>> writesByLoop = new IdentityHashMap<>();
+    @Nullable VelocityCompressor compressor = null;
+
+    try {
+      for (ConnectedPlayer player : players) {
+        MinecraftConnection connection = player.getConnection();
+        if (connection.isClosed()) {
+          continue;
+        }
+
+        ProtocolVersion version = connection.getProtocolVersion();
+        MinecraftPacket packet = packets.computeIfAbsent(version, packetFactory);
+        PendingWrite write;
+        if (connection.getState() != StateRegistry.PLAY) {
+          // We can't know the packet ID ahead of time, so let the connection encode it.
+          write = new PendingWrite(connection, packet, null, -1);
+        } else {
+          Channel channel = connection.getChannel();
+          MinecraftCompressEncoder compressEncoder = (MinecraftCompressEncoder) channel.pipeline()
+              .get(COMPRESSION_ENCODER);
+          int threshold = compressEncoder == null ? -1 : compressEncoder.getThreshold();
+
+          EncodingKey key = new EncodingKey(version, threshold);
+          ByteBuf frame = encoded.get(key);
+          if (frame == null) {
+            if (threshold != -1 && compressor == null) {
+              compressor = Natives.compress.get()
+                  .create(server.getConfiguration().getCompressionLevel());
+            }
+            frame = encode(packet, version, threshold, compressor);
+            encoded.put(key, frame);
+          }
+
+          // Ciphers process their input in place, so encrypted connections must be given a
+          // read-only view to force a copy.
+          ByteBuf view = frame.retainedDuplicate();
+          if (channel.pipeline().get(CIPHER_ENCODER) != null) {
+            view = view.asReadOnly();
+          }
+          write = new PendingWrite(connection, packet, view, threshold);
+        }
+
+        writesByLoop.computeIfAbsent(connection.eventLoop(), loop -> new ArrayList<>())
+            .add(write);
+      }
+    } catch (Exception e) {
+      for (List<PendingWrite> writes : writesByLoop.values()) {
+        for (PendingWrite write : writes) {
+          write.discard();
+        }
+      }
+      throw new IllegalStateException("Unable to encode packet for broadcast", e);
+    } finally {
+      if (compressor != null) {
+        compressor.dispose();
+      }
+      // Each pending write holds its own reference to the frame it will send.
+      for (ByteBuf frame : encoded.values()) {
+        frame.release();
+      }
+    }
+
+    for (Map.Entry<EventLoop, List<PendingWrite>> entry : writesByLoop.entrySet()) {
+      List<PendingWrite> writes = entry.getValue();
+      entry.getKey().execute(() -> {
+        for (PendingWrite write : writes) {
+          write.writeAndFlush();
+        }
+      });
+    }
+  }
+
+  private static ByteBuf encode(MinecraftPacket packet, ProtocolVersion version, int threshold,
+      @Nullable VelocityCompressor compressor) throws Exception {
+    ByteBufAllocator alloc = ByteBufAllocator.DEFAULT;
+    ByteBuf uncompressed = alloc.directBuffer();
+    try {
+      int packetId = Direction.CLIENTBOUND.getProtocolRegistry(StateRegistry.PLAY, version)
+          .getPacketId(packet);
+      ProtocolUtils.writeVarInt(uncompressed, packetId);
+      packet.encode(uncompressed, Direction.CLIENTBOUND, version);
+
+      if (threshold == -1 || compressor == null) {
+        return uncompressed.retain();
+      }
+
+      ByteBuf compressed = MinecraftCompressEncoder.allocateBuffer(alloc, compressor, threshold,
+          uncompressed);
+      try {
+        MinecraftCompressEncoder.compress(alloc, compressor, threshold, uncompressed, compressed);
+      } catch (Exception e) {
+        compressed.release();
+        throw e;
+      }
+      return compressed;
+    } finally {
+      uncompressed.release();
+    }
+  }
+
+  private static final class EncodingKey {
+
+    private final ProtocolVersion version;
+    private final int threshold;
+
+    private EncodingKey(ProtocolVersion version, int threshold) {
+      this.version = version;
+      this.threshold = threshold;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      EncodingKey that = (EncodingKey) o;
+      return threshold == that.threshold && version == that.version;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(version, threshold);
+    }
+  }
+
+  private static final class PendingWrite {
+
+    private final MinecraftConnection connection;
+    private final MinecraftPacket packet;
+    private final @Nullable ByteBuf frame;
+    private final int threshold;
+
+    private PendingWrite(MinecraftConnection connection, MinecraftPacket packet,
+        @Nullable ByteBuf frame, int threshold) {
+      this.connection = connection;
+      this.packet = packet;
+      this.frame = frame;
+      this.threshold = threshold;
+    }
+
+    void writeAndFlush() {
+      Channel channel = connection.getChannel();
+      if (!channel.isActive()) {
+        discard();
+        return;
+      }
+
+      if (frame == null) {
+        connection.write(packet);
+        return;
+      }
+
+      if (threshold == -1) {
+        if (channel.pipeline().get(COMPRESSION_ENCODER) == null) {
+          // The frame passes through the Minecraft encoder untouched.
+          channel.writeAndFlush(frame, channel.voidPromise());
+          return;
+        }
+      } else {
+        // Write after the compression encoder, since the frame has already been compressed.
+        ChannelHandlerContext ctx = channel.pipeline().context(COMPRESSION_ENCODER);
+        if (ctx != null && ((MinecraftCompressEncoder) ctx.handler()).getThreshold()
+            == threshold) {
+          ctx.writeAndFlush(frame, ctx.voidPromise());
+          return;
+        }
+      }
+
+      // The pipeline changed since we encoded the frame. Fall back to a regular write.
+      logger.debug("Pipeline for {} changed during broadcast, encoding packet individually",
+          connection.getRemoteAddress());
+      discard();
+      connection.write(packet);
+    }
+
+    void discard() {
+      if (frame != null) {
+        ReferenceCountUtil.safeRelease(frame);
+      }
+    }
+  }
+}
@@ -18,9 +18,11 @@ import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEncoder;
+import com.velocitypowered.proxy.protocol.netty.PacketRateLimiter;
 import com.velocitypowered.proxy.util.ratelimit.Throttle;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.handler.codec.haproxy.HAProxyMessageDecoder;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import java.net.InetAddress;
@@ -47,18 +49,30 @@ public class ServerChannelInitializer extends ChannelInitializer<Channel> {
       return;
     }
 
+    // Read the watermarks for every connection, so that reloading the configuration applies them
+    // to new connections.
+    ch.config().setWriteBufferWaterMark(new WriteBufferWaterMark(
+        this.server.getConfiguration().getClientWriteBufferLowWatermark(),
+        this.server.getConfiguration().getClientWriteBufferHighWatermark()));
+
     ch.pipeline()
         .addLast(READ_TIMEOUT,
             new ReadTimeoutHandler(this.server.getConfiguration().getReadTimeout(),
                 TimeUnit.MILLISECONDS))
         .addLast(LEGACY_PING_DECODER, new LegacyPingDecoder())
-        .addLast(FRAME_DECODER, new MinecraftVarintFrameDecoder())
+        .addLast(FRAME_DECODER,
+            new MinecraftVarintFrameDecoder(ProtocolUtils.Direction.SERVERBOUND))
         .addLast(LEGACY_PING_ENCODER, LegacyPingEncoder.INSTANCE)
         .addLast(FRAME_ENCODER, MinecraftVarintLengthEncoder.INSTANCE)
-        .addLast(MINECRAFT_DECODER, new MinecraftDecoder(ProtocolUtils.Direction.SERVERBOUND))
+        .addLast(MINECRAFT_DECODER, new MinecraftDecoder(ProtocolUtils.Direction.SERVERBOUND,
+            () -> new PacketRateLimiter(this.server.getConfiguration(),
+                this.server.getPacketRateLimitStatistics())))
         .addLast(MINECRAFT_ENCODER, new MinecraftEncoder(ProtocolUtils.Direction.CLIENTBOUND));
 
     final MinecraftConnection connection = new MinecraftConnection(ch, this.server);
+    connection.setDropNonEssentialWhenUnwritable(
+        this.server.getConfiguration().isDropNonEssentialPackets());
+    connection.setUnwritableTimeout(this.server.getConfiguration().getUnwritableClientTimeout());
     connection.setSessionHandler(new HandshakeSessionHandler(connection, this.server));
     ch.pipeline().addLast(Connections.HANDLER, connection);
 
@@ -19,31 +19,38 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringDatagramChannel;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringServerSocketChannel;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
 import java.util.concurrent.ThreadFactory;
-import java.util.function.BiFunction;
 
 enum TransportType {
   NIO("NIO", NioServerSocketChannel.class, NioSocketChannel.class, NioDatagramChannel.class,
-      (name, type) -> new NioEventLoopGroup(0, createThreadFactory(name, type))),
+      (threads, factory) -> new NioEventLoopGroup(threads, factory)),
   EPOLL("epoll", EpollServerSocketChannel.class, EpollSocketChannel.class,
       EpollDatagramChannel.class,
-      (name, type) -> new EpollEventLoopGroup(0, createThreadFactory(name, type))),
+      (threads, factory) -> new EpollEventLoopGroup(threads, factory)),
+  IO_URING("io_uring", IOUringServerSocketChannel.class, IOUringSocketChannel.class,
+      IOUringDatagramChannel.class,
+      (threads, factory) -> new IOUringEventLoopGroup(threads, factory)),
   KQUEUE("Kqueue", KQueueServerSocketChannel.class, KQueueSocketChannel.class,
       KQueueDatagramChannel.class,
-      (name, type) -> new KQueueEventLoopGroup(0, createThreadFactory(name, type)));
+      (threads, factory) -> new KQueueEventLoopGroup(threads, factory));
 
 
   final String name;
   final Class<? extends ServerSocketChannel> serverSocketChannelClass;
   final Class<? extends SocketChannel> socketChannelClass;
   final Class<? extends DatagramChannel> datagramChannelClass;
-  final BiFunction<String, Type, EventLoopGroup> eventLoopGroupFactory;
+  final EventLoopGroupFactory eventLoopGroupFactory;
 
   TransportType(final String name,
       final Class<? extends ServerSocketChannel> serverSocketChannelClass,
       final Class<? extends SocketChannel> socketChannelClass,
       final Class<? extends DatagramChannel> datagramChannelClass,
-      final BiFunction<String, Type, EventLoopGroup> eventLoopGroupFactory) {
+      final EventLoopGroupFactory eventLoopGroupFactory) {
     this.name = name;
     this.serverSocketChannelClass = serverSocketChannelClass;
     this.socketChannelClass = socketChannelClass;
@@ -56,8 +63,33 @@ enum TransportType {
     return this.name;
   }
 
+  /**
+   * Returns whether or not this transport is backed by native Linux sockets, and therefore
+   * supports options such as {@code SO_REUSEPORT} and TCP fast open.
+   *
+   * @return whether this is a native Linux transport
+   */
+  public boolean isLinuxNative() {
+    return this == EPOLL || this == IO_URING;
+  }
+
   public EventLoopGroup createEventLoopGroup(final Type type) {
-    return this.eventLoopGroupFactory.apply(this.name, type);
+    return this.createEventLoopGroup(type, type.getConfiguredThreads());
+  }
+
+  /**
+   * Creates an event loop group of the specified {@code type} with {@code threads} threads.
+   *
+   * @param type the type of event loop group to create
+   * @param threads the number of threads to use, or {@code 0} to use Netty's default (twice the
+   *                number of available processors)
+   * @return the new event loop group
+   */
+  public EventLoopGroup createEventLoopGroup(final Type type, final int threads) {
+    if (threads < 0) {
+      throw new IllegalArgumentException("Invalid thread count " + threads + " for " + type);
+    }
+    return this.eventLoopGroupFactory.create(threads, createThreadFactory(this.name, type));
   }
 
   private static ThreadFactory createThreadFactory(final String name, final Type type) {
@@ -69,7 +101,9 @@ enum TransportType {
       return NIO;
     }
 
-    if (Epoll.isAvailable()) {
+    if (IOUring.isAvailable() && !Boolean.getBoolean("velocity.disable-iouring-transport")) {
+      return IO_URING;
+    } else if (Epoll.isAvailable()) {
       return EPOLL;
     } else if (KQueue.isAvailable()) {
       return KQUEUE;
@@ -79,13 +113,27 @@ enum TransportType {
   }
 
   public enum Type {
-    BOSS("Boss"),
-    WORKER("Worker");
+    BOSS("Boss", "velocity.boss-threads"),
+    WORKER("Worker", "velocity.worker-threads");
 
     private final String name;
+    private final String threadsProperty;
 
-    Type(final String name) {
+    Type(final String name, final String threadsProperty) {
       this.name = name;
+      this.threadsProperty = threadsProperty;
+    }
+
+    /**
+     * Returns the number of threads requested for this event loop group type through its system
+     * property, or {@code 0} (Netty's default) if none was specified. A negative value is
+     * returned as is, so that {@link TransportType#createEventLoopGroup(Type, int)} rejects it
+     * instead of silently using the default.
+     *
+     * @return the number of threads to use
+     */
+    public int getConfiguredThreads() {
+      return Integer.getInteger(this.threadsProperty, 0);
     }
 
     @Override
@@ -93,4 +141,10 @@ enum TransportType {
       return this.name;
     }
   }
+
+  @FunctionalInterface
+  interface EventLoopGroupFactory {
+
+    EventLoopGroup create(int threads, ThreadFactory threadFactory);
+  }
 }
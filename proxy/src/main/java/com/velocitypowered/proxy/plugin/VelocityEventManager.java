@@ -120,6 +120,17 @@ public class VelocityEventManager implements EventManager {
     return eventFuture;
   }
 
+  /**
+   * Determines whether any listeners are registered for the specified event type.
+   *
+   * @param eventClass the event type
+   * @return {@code true} if at least one listener would receive the event
+   */
+  public boolean hasSubscribers(Class<?> eventClass) {
+    Preconditions.checkNotNull(eventClass, "eventClass");
+    return bus.hasSubscribers(eventClass);
+  }
+
   @Override
   public void fireAndForget(Object event) {
     if (event == null) {
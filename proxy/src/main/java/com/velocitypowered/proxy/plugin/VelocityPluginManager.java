@@ -4,6 +4,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.AbstractModule;
 import com.google.inject.Module;
 import com.google.inject.name.Names;
@@ -25,13 +26,20 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -54,7 +62,9 @@ public class VelocityPluginManager implements PluginManager {
   }
 
   /**
-   * Loads all plugins from the specified {@code directory}.
+   * Loads all plugins from the specified {@code directory}. Plugin descriptions are read in
+   * parallel, and so are the classes of plugins that don't depend on each other. The plugins are
+   * then constructed one at a time, in dependency order.
    * @param directory the directory to load from
    * @throws IOException if we could not open the directory
    */
@@ -62,49 +72,34 @@ public class VelocityPluginManager implements PluginManager {
     checkNotNull(directory, "directory");
     checkArgument(directory.toFile().isDirectory(), "provided path isn't a directory");
 
-    List<PluginDescription> found = new ArrayList<>();
-    JavaPluginLoader loader = new JavaPluginLoader(server, directory);
-
+    List<Path> jars = new ArrayList<>();
     try (DirectoryStream<Path> stream = Files
         .newDirectoryStream(directory, p -> p.toFile().isFile() && p.toString().endsWith(".jar"))) {
       for (Path path : stream) {
-        try {
-          found.add(loader.loadPluginDescription(path));
-        } catch (Exception e) {
-          logger.error("Unable to load plugin {}", path, e);
-        }
+        jars.add(path);
       }
     }
 
-    if (found.isEmpty()) {
+    if (jars.isEmpty()) {
       // No plugins found
       return;
     }
 
-    List<PluginDescription> sortedPlugins = PluginDependencyUtils.sortCandidates(found);
-
-    Set<String> loadedPluginsById = new HashSet<>();
-    Map<PluginContainer, Module> pluginContainers = new HashMap<>();
-    // Now load the plugins
-    pluginLoad:
-    for (PluginDescription candidate : sortedPlugins) {
-      // Verify dependencies
-      for (PluginDependency dependency : candidate.getDependencies()) {
-        if (!dependency.isOptional() && !loadedPluginsById.contains(dependency.getId())) {
-          logger.error("Can't load plugin {} due to missing dependency {}", candidate.getId(),
-              dependency.getId());
-          continue pluginLoad;
-        }
-      }
-
-      try {
-        PluginDescription realPlugin = loader.loadPlugin(candidate);
-        VelocityPluginContainer container = new VelocityPluginContainer(realPlugin);
-        pluginContainers.put(container, loader.createModule(container));
-        loadedPluginsById.add(realPlugin.getId());
-      } catch (Exception e) {
-        logger.error("Can't create module for plugin {}", candidate.getId(), e);
+    JavaPluginLoader loader = new JavaPluginLoader(server, directory);
+    Map<String, PluginTiming> timings = new ConcurrentHashMap<>();
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(jars.size(), Runtime.getRuntime().availableProcessors()),
+        new ThreadFactoryBuilder().setNameFormat("Velocity Plugin Loader - #%d").setDaemon(true)
+            .build());
+    Map<PluginContainer, Module> pluginContainers;
+    try {
+      List<PluginDescription> found = findCandidates(loader, jars, executor, timings);
+      if (found.isEmpty()) {
+        return;
       }
+      pluginContainers = loadCandidates(loader, found, executor, timings);
+    } finally {
+      executor.shutdown();
     }
 
     // Make a global Guice module that with common bindings for every plugin
@@ -127,17 +122,113 @@ public class VelocityPluginManager implements PluginManager {
       PluginContainer container = plugin.getKey();
       PluginDescription description = container.getDescription();
 
+      long start = System.nanoTime();
       try {
         loader.createPlugin(container, plugin.getValue(), commonModule);
       } catch (Exception e) {
         logger.error("Can't create plugin {}", description.getId(), e);
         continue;
+      } finally {
+        timings.computeIfAbsent(description.getId(), PluginTiming::new).constructNanos =
+            System.nanoTime() - start;
       }
 
       logger.info("Loaded plugin {} {} by {}", description.getId(), description.getVersion()
           .orElse("<UNKNOWN>"), Joiner.on(", ").join(description.getAuthors()));
       registerPlugin(container);
     }
+
+    logTimings(timings.values());
+  }
+
+  private List<PluginDescription> findCandidates(JavaPluginLoader loader, List<Path> jars,
+      ExecutorService executor, Map<String, PluginTiming> timings) {
+    List<CompletableFuture<Optional<PluginDescription>>> scans = new ArrayList<>(jars.size());
+    for (Path path : jars) {
+      scans.add(CompletableFuture.supplyAsync(() -> {
+        long start = System.nanoTime();
+        try {
+          PluginDescription description = loader.loadPluginDescription(path);
+          timings.computeIfAbsent(description.getId(), PluginTiming::new).describeNanos =
+              System.nanoTime() - start;
+          return Optional.of(description);
+        } catch (Exception e) {
+          logger.error("Unable to load plugin {}", path, e);
+          return Optional.empty();
+        }
+      }, executor));
+    }
+
+    List<PluginDescription> found = new ArrayList<>(jars.size());
+    for (CompletableFuture<Optional<PluginDescription>> scan : scans) {
+      scan.join().ifPresent(found::add);
+    }
+    return found;
+  }
+
+  private Map<PluginContainer, Module> loadCandidates(JavaPluginLoader loader,
+      List<PluginDescription> found, ExecutorService executor, Map<String, PluginTiming> timings) {
+    List<PluginDescription> sortedPlugins = PluginDependencyUtils.sortCandidates(found);
+
+    Set<String> loadedPluginsById = new HashSet<>();
+    Map<PluginContainer, Module> pluginContainers = new LinkedHashMap<>();
+    // Now load the plugins. A level only depends on the levels before it, so the plugins in a
+    // level can be loaded in parallel.
+    for (List<PluginDescription> level : PluginDependencyUtils.groupByDepth(sortedPlugins)) {
+      List<CompletableFuture<Optional<VelocityPluginContainer>>> loads = new ArrayList<>();
+      Map<VelocityPluginContainer, Module> modules = new ConcurrentHashMap<>();
+
+      pluginLoad:
+      for (PluginDescription candidate : level) {
+        // Verify dependencies
+        for (PluginDependency dependency : candidate.getDependencies()) {
+          if (!dependency.isOptional() && !loadedPluginsById.contains(dependency.getId())) {
+            logger.error("Can't load plugin {} due to missing dependency {}", candidate.getId(),
+                dependency.getId());
+            continue pluginLoad;
+          }
+        }
+
+        loads.add(CompletableFuture.supplyAsync(() -> {
+          long start = System.nanoTime();
+          try {
+            PluginDescription realPlugin = loader.loadPlugin(candidate);
+            VelocityPluginContainer container = new VelocityPluginContainer(realPlugin);
+            modules.put(container, loader.createModule(container));
+            return Optional.of(container);
+          } catch (Exception e) {
+            logger.error("Can't create module for plugin {}", candidate.getId(), e);
+            return Optional.empty();
+          } finally {
+            timings.computeIfAbsent(candidate.getId(), PluginTiming::new).loadNanos =
+                System.nanoTime() - start;
+          }
+        }, executor));
+      }
+
+      for (CompletableFuture<Optional<VelocityPluginContainer>> load : loads) {
+        load.join().ifPresent(container -> {
+          pluginContainers.put(container, modules.get(container));
+          loadedPluginsById.add(container.getDescription().getId());
+        });
+      }
+    }
+    return pluginContainers;
+  }
+
+  private static void logTimings(Collection<PluginTiming> timings) {
+    List<PluginTiming> sorted = new ArrayList<>(timings);
+    sorted.sort(Comparator.comparingLong(PluginTiming::getTotalNanos).reversed());
+    logger.info("Plugin startup times (reading description / loading classes / constructing):");
+    for (PluginTiming timing : sorted) {
+      logger.info("  {}: {} ms ({} / {} / {} ms)", timing.id, toMillis(timing.getTotalNanos()),
+          toMillis(timing.describeNanos), toMillis(timing.loadNanos),
+          toMillis(timing.constructNanos));
+    }
+  }
+
+  private static String toMillis(long nanos) {
+    return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
   }
 
   @Override
@@ -181,4 +272,20 @@ public class VelocityPluginManager implements PluginManager {
           "Operation is not supported on non-Java Velocity plugins.");
     }
   }
+
+  private static final class PluginTiming {
+
+    private final String id;
+    private long describeNanos;
+    private long loadNanos;
+    private long constructNanos;
+
+    private PluginTiming(String id) {
+      this.id = id;
+    }
+
+    private long getTotalNanos() {
+      return describeNanos + loadNanos + constructNanos;
+    }
+  }
 }
@@ -14,18 +14,16 @@ import com.velocitypowered.proxy.plugin.PluginClassLoader;
 import com.velocitypowered.proxy.plugin.loader.PluginLoader;
 import com.velocitypowered.proxy.plugin.loader.VelocityPluginContainer;
 import com.velocitypowered.proxy.plugin.loader.VelocityPluginDescription;
-import java.io.BufferedInputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
-import java.util.jar.JarEntry;
-import java.util.jar.JarInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 public class JavaPluginLoader implements PluginLoader {
 
@@ -110,24 +108,18 @@ public class JavaPluginLoader implements PluginLoader {
 
   private Optional<SerializedPluginDescription> getSerializedPluginInfo(Path source)
       throws Exception {
-    boolean foundBungeeBukkitPluginFile = false;
-    try (JarInputStream in = new JarInputStream(
-        new BufferedInputStream(Files.newInputStream(source)))) {
-      JarEntry entry;
-      while ((entry = in.getNextJarEntry()) != null) {
-        if (entry.getName().equals("velocity-plugin.json")) {
-          try (Reader pluginInfoReader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
-            return Optional.of(VelocityServer.GSON
-                .fromJson(pluginInfoReader, SerializedPluginDescription.class));
-          }
-        }
-
-        if (entry.getName().equals("plugin.yml") || entry.getName().equals("bungee.yml")) {
-          foundBungeeBukkitPluginFile = true;
+    // Look the description up in the central directory, instead of reading the whole JAR.
+    try (ZipFile jar = new ZipFile(source.toFile())) {
+      ZipEntry entry = jar.getEntry("velocity-plugin.json");
+      if (entry != null) {
+        try (Reader pluginInfoReader = new InputStreamReader(jar.getInputStream(entry),
+            StandardCharsets.UTF_8)) {
+          return Optional.of(VelocityServer.GSON
+              .fromJson(pluginInfoReader, SerializedPluginDescription.class));
         }
       }
 
-      if (foundBungeeBukkitPluginFile) {
+      if (jar.getEntry("plugin.yml") != null || jar.getEntry("bungee.yml") != null) {
         throw new InvalidPluginException("The plugin file " + source.getFileName() + " appears to "
             + "be a Bukkit or BungeeCord plugin. Velocity does not support Bukkit or BungeeCord "
             + "plugins.");
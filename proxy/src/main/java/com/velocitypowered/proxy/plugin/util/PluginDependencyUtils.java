@@ -65,6 +65,35 @@ public class PluginDependencyUtils {
     return sorted;
   }
 
+  /**
+   * Groups plugins sorted by {@link #sortCandidates(List)} into levels that can be loaded one
+   * after another. The plugins in a level only depend on plugins in earlier levels, so the plugins
+   * within a level may be loaded at the same time.
+   *
+   * @param sortedCandidates the sorted plugins
+   * @return the plugins, grouped into levels
+   */
+  public static List<List<PluginDescription>> groupByDepth(
+      List<PluginDescription> sortedCandidates) {
+    Map<String, Integer> depths = new HashMap<>();
+    List<List<PluginDescription>> levels = new ArrayList<>();
+    for (PluginDescription description : sortedCandidates) {
+      int depth = 0;
+      for (PluginDependency dependency : description.getDependencies()) {
+        Integer dependencyDepth = depths.get(dependency.getId());
+        if (dependencyDepth != null) {
+          depth = Math.max(depth, dependencyDepth + 1);
+        }
+      }
+      depths.put(description.getId(), depth);
+      if (depth == levels.size()) {
+        levels.add(new ArrayList<>());
+      }
+      levels.get(depth).add(description);
+    }
+    return levels;
+  }
+
   private static void visitNode(Graph<PluginDescription> dependencyGraph, PluginDescription node,
       Map<PluginDescription, Mark> marks, List<PluginDescription> sorted,
       Deque<PluginDescription> currentIteration) {
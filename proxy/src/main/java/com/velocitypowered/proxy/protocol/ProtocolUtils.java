@@ -96,13 +96,15 @@ public enum ProtocolUtils {
 
   private static String readString(ByteBuf buf, int cap, int length) {
     checkFrame(length >= 0, "Got a negative-length string (%s)", length);
-    // `cap` is interpreted as a UTF-8 character length. To cover the full Unicode plane, we must
-    // consider the length of a UTF-8 character, which can be up to 4 bytes. We do an initial
-    // sanity check and then check again to make sure our optimistic guess was good.
-    checkFrame(length <= cap * 4, "Bad string size (got %s, maximum is %s)", length, cap);
+    // Check against what we actually received first, so a bogus length can never make us decode
+    // more than the frame we already hold.
     checkFrame(buf.isReadable(length),
         "Trying to read a string that is too long (wanted %s, only have %s)", length,
         buf.readableBytes());
+    // `cap` is interpreted as a UTF-8 character length. To cover the full Unicode plane, we must
+    // consider the length of a UTF-8 character, which can be up to 4 bytes. We do an initial
+    // sanity check and then check again to make sure our optimistic guess was good.
+    checkFrame(length <= cap * 4L, "Bad string size (got %s, maximum is %s)", length, cap);
     String str = buf.toString(buf.readerIndex(), length, StandardCharsets.UTF_8);
     buf.skipBytes(length);
     checkFrame(str.length() <= cap, "Got a too-long string (got %s, max %s)",
@@ -157,6 +159,10 @@ public enum ProtocolUtils {
   public static int[] readIntegerArray(ByteBuf buf) {
     int len = readVarInt(buf);
     checkArgument(len >= 0, "Got a negative-length integer array (%s)", len);
+    // Every VarInt takes at least one byte, so don't allocate more than the buffer could hold.
+    checkFrame(len <= buf.readableBytes(),
+        "Trying to read an integer array that is too long (wanted %s, only have %s)", len,
+        buf.readableBytes());
     int[] array = new int[len];
     for (int i = 0; i < len; i++) {
       array[i] = readVarInt(buf);
@@ -237,6 +243,9 @@ public enum ProtocolUtils {
 
     Preconditions.checkArgument(len <= (FORGE_MAX_ARRAY_LENGTH),
         "Cannot receive array longer than %s (got %s bytes)", FORGE_MAX_ARRAY_LENGTH, len);
+    checkFrame(buf.isReadable(len),
+        "Trying to read an array that is too long (wanted %s, only have %s)", len,
+        buf.readableBytes());
 
     byte[] ret = new byte[len];
     buf.readBytes(ret);
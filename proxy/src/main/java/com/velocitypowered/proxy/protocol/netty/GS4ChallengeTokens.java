@@ -0,0 +1,77 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import java.net.InetAddress;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Creates and validates GS4 query challenge tokens without storing them. A token is derived from
+ * the address of the client and the current time period using a secret key, so a token can be
+ * validated by deriving it again. Tokens remain valid for one to two periods.
+ *
+ * <p>Instances are not thread-safe. Each query handler owns its own instance, and only uses it
+ * from the event loop of its channel.</p>
+ */
+final class GS4ChallengeTokens {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  static final long PERIOD_MILLIS = 30_000;
+
+  private final Mac mac;
+  private final byte[] period = new byte[8];
+  private final byte[] digest;
+
+  GS4ChallengeTokens() {
+    byte[] secret = new byte[32];
+    new SecureRandom().nextBytes(secret);
+    try {
+      this.mac = Mac.getInstance(ALGORITHM);
+      this.mac.init(new SecretKeySpec(secret, ALGORITHM));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to initialize query challenge tokens", e);
+    }
+    this.digest = new byte[mac.getMacLength()];
+  }
+
+  /**
+   * Creates a challenge token for the specified client.
+   *
+   * @param address the address of the client
+   * @param now the current time in milliseconds
+   * @return the challenge token
+   */
+  int create(InetAddress address, long now) {
+    return derive(address, now / PERIOD_MILLIS);
+  }
+
+  /**
+   * Determines whether the {@code token} was issued to the specified client recently.
+   *
+   * @param address the address of the client
+   * @param token the token sent by the client
+   * @param now the current time in milliseconds
+   * @return whether the token is valid
+   */
+  boolean isValid(InetAddress address, int token, long now) {
+    long current = now / PERIOD_MILLIS;
+    return token == derive(address, current) || token == derive(address, current - 1);
+  }
+
+  private int derive(InetAddress address, long periodIndex) {
+    for (int i = 0; i < 8; i++) {
+      period[i] = (byte) (periodIndex >>> (56 - i * 8));
+    }
+    mac.update(address.getAddress());
+    mac.update(period);
+    try {
+      mac.doFinal(digest, 0);
+    } catch (GeneralSecurityException e) {
+      // Can't happen, the digest buffer is large enough.
+      throw new AssertionError(e);
+    }
+    return (digest[0] & 0xFF) << 24 | (digest[1] & 0xFF) << 16 | (digest[2] & 0xFF) << 8
+        | (digest[3] & 0xFF);
+  }
+}
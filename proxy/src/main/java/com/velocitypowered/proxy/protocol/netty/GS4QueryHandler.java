@@ -3,8 +3,6 @@ package com.velocitypowered.proxy.protocol.netty;
 import static com.velocitypowered.api.event.query.ProxyQueryEvent.QueryType.BASIC;
 import static com.velocitypowered.api.event.query.ProxyQueryEvent.QueryType.FULL;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.velocitypowered.api.event.query.ProxyQueryEvent;
 import com.velocitypowered.api.network.ProtocolVersion;
@@ -13,12 +11,13 @@ import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.server.QueryResponse;
 import com.velocitypowered.proxy.VelocityServer;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.DatagramPacket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -30,6 +29,7 @@ import net.kyori.text.serializer.plain.PlainComponentSerializer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class GS4QueryHandler extends SimpleChannelInboundHandler<DatagramPacket> {
 
@@ -39,6 +39,7 @@ public class GS4QueryHandler extends SimpleChannelInboundHandler<DatagramPacket>
   private static final short QUERY_MAGIC_SECOND = 0xFD;
   private static final byte QUERY_TYPE_HANDSHAKE = 0x09;
   private static final byte QUERY_TYPE_STAT = 0x00;
+  private static final long SNAPSHOT_LIFETIME_NANOS = TimeUnit.SECONDS.toNanos(1);
   private static final byte[] QUERY_RESPONSE_FULL_PADDING = new byte[]{0x73, 0x70, 0x6C, 0x69, 0x74,
       0x6E, 0x75, 0x6D, 0x00, (byte) 0x80, 0x00};
   private static final byte[] QUERY_RESPONSE_FULL_PADDING2 = new byte[]{0x01, 0x70, 0x6C, 0x61,
@@ -55,22 +56,30 @@ public class GS4QueryHandler extends SimpleChannelInboundHandler<DatagramPacket>
       "hostip"
   );
 
-  private final Cache<InetAddress, Integer> sessions = CacheBuilder.newBuilder()
-      .expireAfterWrite(30, TimeUnit.SECONDS)
-      .build();
-  private final SecureRandom random;
+  private static final int RATE_LIMITER_CAPACITY = 4096;
+
+  private final GS4ChallengeTokens challengeTokens = new GS4ChallengeTokens();
+  private final GS4RateLimiter rateLimiter = new GS4RateLimiter(RATE_LIMITER_CAPACITY);
 
   private volatile @MonotonicNonNull List<QueryResponse.PluginInformation> pluginInformationList
       = null;
 
+  // Only used from the event loop of the query channel.
+  private @Nullable QuerySnapshot snapshot;
+
   private final VelocityServer server;
 
+  /**
+   * Creates a new query handler.
+   *
+   * @param server the proxy
+   */
   public GS4QueryHandler(VelocityServer server) {
     this.server = server;
-    this.random = new SecureRandom();
   }
 
   private QueryResponse createInitialResponse() {
+    InetSocketAddress bind = server.getConfiguration().getBind();
     return QueryResponse.builder()
         .hostname(PlainComponentSerializer.INSTANCE
             .serialize(server.getConfiguration().getMotdComponent()))
@@ -78,8 +87,8 @@ public class GS4QueryHandler extends SimpleChannelInboundHandler<DatagramPacket>
         .map(server.getConfiguration().getQueryMap())
         .currentPlayers(server.getPlayerCount())
         .maxPlayers(server.getConfiguration().getShowMaxPlayers())
-        .proxyPort(server.getConfiguration().getBind().getPort())
-        .proxyHost(server.getConfiguration().getBind().getHostString())
+        .proxyPort(bind.getPort())
+        .proxyHost(bind.getHostString())
         .players(server.getAllPlayers().stream().map(Player::getUsername)
             .collect(Collectors.toList()))
         .proxyVersion("Velocity")
@@ -93,10 +102,11 @@ public class GS4QueryHandler extends SimpleChannelInboundHandler<DatagramPacket>
   protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket msg) throws Exception {
     ByteBuf queryMessage = msg.content();
     InetAddress senderAddress = msg.sender().getAddress();
-
-    // Allocate buffer for response
-    ByteBuf queryResponse = ctx.alloc().buffer();
-    DatagramPacket responsePacket = new DatagramPacket(queryResponse, msg.sender());
+    long now = System.currentTimeMillis();
+    if (!rateLimiter.tryAcquire(senderAddress, server.getConfiguration().getQueryRateLimit(),
+        now)) {
+      return;
+    }
 
     try {
       // Verify query packet magic
@@ -111,23 +121,23 @@ public class GS4QueryHandler extends SimpleChannelInboundHandler<DatagramPacket>
 
       switch (type) {
         case QUERY_TYPE_HANDSHAKE: {
-          // Generate new challenge token and put it into the sessions cache
-          int challengeToken = random.nextInt();
-          sessions.put(senderAddress, challengeToken);
+          // Generate a new challenge token. It doesn't need to be stored, since it can be
+          // derived again from the sender's address to validate it.
+          int challengeToken = challengeTokens.create(senderAddress, now);
 
           // Respond with challenge token
+          ByteBuf queryResponse = ctx.alloc().buffer();
           queryResponse.writeByte(QUERY_TYPE_HANDSHAKE);
           queryResponse.writeInt(sessionId);
           writeString(queryResponse, Integer.toString(challengeToken));
-          ctx.writeAndFlush(responsePacket, ctx.voidPromise());
+          ctx.writeAndFlush(new DatagramPacket(queryResponse, msg.sender()), ctx.voidPromise());
           break;
         }
 
         case QUERY_TYPE_STAT: {
           // Check if query was done with session previously generated using a handshake packet
           int challengeToken = queryMessage.readInt();
-          Integer session = sessions.getIfPresent(senderAddress);
-          if (session == null || session != challengeToken) {
+          if (!challengeTokens.isValid(senderAddress, challengeToken, now)) {
             throw new IllegalStateException("Invalid challenge token");
           }
 
@@ -136,41 +146,37 @@ public class GS4QueryHandler extends SimpleChannelInboundHandler<DatagramPacket>
             throw new IllegalStateException("Invalid query packet");
           }
 
-          // Build query response
-          QueryResponse response = createInitialResponse();
-
           boolean isBasic = queryMessage.readableBytes() == 0;
+          QuerySnapshot snapshot = getSnapshot();
+          if (!server.getEventManager().hasSubscribers(ProxyQueryEvent.class)) {
+            writeStatResponse(ctx, msg.sender(), sessionId, snapshot.getBody(isBasic));
+            break;
+          }
 
-          // Call event and write response
+          // Call event and write response. The snapshot may be replaced in the meantime, so keep
+          // it alive until the response is written.
+          snapshot.retain();
           server.getEventManager()
-              .fire(new ProxyQueryEvent(isBasic ? BASIC : FULL, senderAddress, response))
+              .fire(new ProxyQueryEvent(isBasic ? BASIC : FULL, senderAddress,
+                  snapshot.response))
               .whenCompleteAsync((event, exc) -> {
-                // Packet header
-                queryResponse.writeByte(QUERY_TYPE_STAT);
-                queryResponse.writeInt(sessionId);
-
-                // Start writing the response
-                ResponseWriter responseWriter = new ResponseWriter(queryResponse, isBasic);
-                responseWriter.write("hostname", event.getResponse().getHostname());
-                responseWriter.write("gametype", "SMP");
-
-                responseWriter.write("game_id", "MINECRAFT");
-                responseWriter.write("version", event.getResponse().getGameVersion());
-                responseWriter.writePlugins(event.getResponse().getProxyVersion(),
-                    event.getResponse().getPlugins());
-
-                responseWriter.write("map", event.getResponse().getMap());
-                responseWriter.write("numplayers", event.getResponse().getCurrentPlayers());
-                responseWriter.write("maxplayers", event.getResponse().getMaxPlayers());
-                responseWriter.write("hostport", event.getResponse().getProxyPort());
-                responseWriter.write("hostip", event.getResponse().getProxyHost());
-
-                if (!responseWriter.isBasic) {
-                  responseWriter.writePlayers(event.getResponse().getPlayers());
+                try {
+                  if (event.getResponse() == snapshot.response) {
+                    // No plugin changed the response, so the encoded one can be reused.
+                    writeStatResponse(ctx, msg.sender(), sessionId, snapshot.getBody(isBasic));
+                    return;
+                  }
+
+                  ByteBuf body = ctx.alloc().buffer();
+                  try {
+                    writeResponseBody(body, event.getResponse(), isBasic);
+                    writeStatResponse(ctx, msg.sender(), sessionId, body);
+                  } finally {
+                    body.release();
+                  }
+                } finally {
+                  snapshot.release();
                 }
-
-                // Send the response
-                ctx.writeAndFlush(responsePacket, ctx.voidPromise());
               }, ctx.channel().eventLoop());
 
           break;
@@ -180,9 +186,57 @@ public class GS4QueryHandler extends SimpleChannelInboundHandler<DatagramPacket>
       }
     } catch (Exception e) {
       logger.warn("Error while trying to handle a query packet from {}", msg.sender(), e);
-      // NB: Only need to explicitly release upon exception, writing the response out will decrement
-      // the reference count.
-      responsePacket.release();
+    }
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    QuerySnapshot snapshot = this.snapshot;
+    if (snapshot != null) {
+      this.snapshot = null;
+      snapshot.release();
+    }
+  }
+
+  private QuerySnapshot getSnapshot() {
+    QuerySnapshot snapshot = this.snapshot;
+    long now = System.nanoTime();
+    if (snapshot == null || now - snapshot.createdAt >= SNAPSHOT_LIFETIME_NANOS) {
+      if (snapshot != null) {
+        snapshot.release();
+      }
+      snapshot = new QuerySnapshot(createInitialResponse(), now);
+      this.snapshot = snapshot;
+    }
+    return snapshot;
+  }
+
+  private static void writeStatResponse(ChannelHandlerContext ctx, InetSocketAddress recipient,
+      int sessionId, ByteBuf body) {
+    ByteBuf queryResponse = ctx.alloc().buffer(5 + body.readableBytes());
+    queryResponse.writeByte(QUERY_TYPE_STAT);
+    queryResponse.writeInt(sessionId);
+    queryResponse.writeBytes(body, body.readerIndex(), body.readableBytes());
+    ctx.writeAndFlush(new DatagramPacket(queryResponse, recipient), ctx.voidPromise());
+  }
+
+  private static void writeResponseBody(ByteBuf buf, QueryResponse response, boolean isBasic) {
+    ResponseWriter responseWriter = new ResponseWriter(buf, isBasic);
+    responseWriter.write("hostname", response.getHostname());
+    responseWriter.write("gametype", "SMP");
+
+    responseWriter.write("game_id", "MINECRAFT");
+    responseWriter.write("version", response.getGameVersion());
+    responseWriter.writePlugins(response.getProxyVersion(), response.getPlugins());
+
+    responseWriter.write("map", response.getMap());
+    responseWriter.write("numplayers", response.getCurrentPlayers());
+    responseWriter.write("maxplayers", response.getMaxPlayers());
+    responseWriter.write("hostport", response.getProxyPort());
+    responseWriter.write("hostip", response.getProxyHost());
+
+    if (!responseWriter.isBasic) {
+      responseWriter.writePlayers(response.getPlayers());
     }
   }
 
@@ -208,6 +262,42 @@ public class GS4QueryHandler extends SimpleChannelInboundHandler<DatagramPacket>
     return res;
   }
 
+  /**
+   * The query response at a given point in time, along with its encoded basic and full stat
+   * bodies. Query floods are answered from the encoded bodies instead of building a new response
+   * for every query.
+   */
+  private static final class QuerySnapshot {
+
+    private final QueryResponse response;
+    private final long createdAt;
+    private final ByteBuf basicBody;
+    private final ByteBuf fullBody;
+
+    private QuerySnapshot(QueryResponse response, long createdAt) {
+      this.response = response;
+      this.createdAt = createdAt;
+      this.basicBody = Unpooled.buffer();
+      this.fullBody = Unpooled.buffer();
+      writeResponseBody(basicBody, response, true);
+      writeResponseBody(fullBody, response, false);
+    }
+
+    ByteBuf getBody(boolean isBasic) {
+      return isBasic ? basicBody : fullBody;
+    }
+
+    void retain() {
+      basicBody.retain();
+      fullBody.retain();
+    }
+
+    void release() {
+      basicBody.release();
+      fullBody.release();
+    }
+  }
+
   private static class ResponseWriter {
 
     private final ByteBuf buf;
@@ -0,0 +1,110 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.google.common.base.Preconditions;
+import java.net.InetAddress;
+import java.util.Arrays;
+
+/**
+ * Limits how many query packets each address may send per second. Counters are kept in a
+ * fixed-size open-addressing table keyed by the bits of the address, and a counter from a previous
+ * second is treated as an empty slot, so the table never needs to be cleaned up and a flood of
+ * addresses can't make it grow. If every slot an address may use is taken by another address in
+ * the current second, the packet is rejected.
+ *
+ * <p>Instances are not thread-safe. Each query handler owns its own instance, and only uses it
+ * from the event loop of its channel.</p>
+ */
+final class GS4RateLimiter {
+
+  private static final int MAX_PROBES = 8;
+  private static final long IPV4_MAPPED_PREFIX = 0xFFFF00000000L;
+
+  private final int mask;
+  private final long[] highBits;
+  private final long[] lowBits;
+  private final long[] seconds;
+  private final int[] counts;
+
+  /**
+   * Creates a new rate limiter.
+   *
+   * @param capacity the number of slots in the table, rounded up to a power of two
+   */
+  GS4RateLimiter(int capacity) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+    int size = Integer.highestOneBit(capacity - 1) << 1;
+    if (size <= 0) {
+      size = 1;
+    }
+    this.mask = size - 1;
+    this.highBits = new long[size];
+    this.lowBits = new long[size];
+    this.seconds = new long[size];
+    this.counts = new int[size];
+    Arrays.fill(seconds, Long.MIN_VALUE);
+  }
+
+  /**
+   * Determines whether a packet from the specified {@code address} may be handled. The limit is
+   * passed in on every call so that a reloaded configuration applies straight away.
+   *
+   * @param address the address the packet came from
+   * @param limit how many packets each address may send per second, or {@code 0} for no limit
+   * @param now the current time in milliseconds
+   * @return whether the packet may be handled
+   */
+  boolean tryAcquire(InetAddress address, int limit, long now) {
+    if (limit <= 0) {
+      return true;
+    }
+
+    byte[] bytes = address.getAddress();
+    long high;
+    long low;
+    if (bytes.length == 4) {
+      high = 0;
+      low = IPV4_MAPPED_PREFIX | readInt(bytes, 0) & 0xFFFFFFFFL;
+    } else {
+      high = (long) readInt(bytes, 0) << 32 | readInt(bytes, 4) & 0xFFFFFFFFL;
+      low = (long) readInt(bytes, 8) << 32 | readInt(bytes, 12) & 0xFFFFFFFFL;
+    }
+
+    long second = now / 1000;
+    int start = hash(high, low);
+    int free = -1;
+    for (int i = 0; i < MAX_PROBES; i++) {
+      int slot = (start + i) & mask;
+      if (seconds[slot] != second) {
+        if (free == -1) {
+          free = slot;
+        }
+      } else if (highBits[slot] == high && lowBits[slot] == low) {
+        if (counts[slot] >= limit) {
+          return false;
+        }
+        counts[slot]++;
+        return true;
+      }
+    }
+
+    if (free == -1) {
+      return false;
+    }
+    highBits[free] = high;
+    lowBits[free] = low;
+    seconds[free] = second;
+    counts[free] = 1;
+    return true;
+  }
+
+  private int hash(long high, long low) {
+    long h = high * 0x9E3779B97F4A7C15L ^ low;
+    h *= 0xC2B2AE3D27D4EB4FL;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+
+  private static int readInt(byte[] bytes, int offset) {
+    return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16
+        | (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+  }
+}
@@ -4,8 +4,10 @@ import static com.velocitypowered.natives.util.MoreByteBufUtils.ensureCompatible
 import static com.velocitypowered.natives.util.MoreByteBufUtils.preferredBuffer;
 import static com.velocitypowered.proxy.protocol.util.NettyPreconditions.checkFrame;
 
+import com.google.common.base.Preconditions;
 import com.velocitypowered.natives.compression.VelocityCompressor;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
@@ -14,14 +16,30 @@ import java.util.List;
 public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
 
   private static final int SOFT_MAXIMUM_UNCOMPRESSED_SIZE = 2 * 1024 * 1024; // 2MiB
-  private static final int HARD_MAXIMUM_UNCOMPRESSED_SIZE = 16 * 1024 * 1024; // 16MiB
+  // Deflate rarely does better than this on real packets, so we don't trust the claimed size
+  // beyond it when picking the initial buffer size. The buffer grows if the packet is bigger.
+  private static final int EXPECTED_MAXIMUM_COMPRESSION_RATIO = 32;
 
   private final int threshold;
   private final VelocityCompressor compressor;
+  private final ProtocolUtils.Direction direction;
+  private int maximumUncompressedSize;
 
-  public MinecraftCompressDecoder(int threshold, VelocityCompressor compressor) {
+  /**
+   * Creates a new {@code MinecraftCompressDecoder} inflating packets from the specified
+   * {@code direction}.
+   *
+   * @param threshold the compression threshold
+   * @param compressor the compressor to inflate packets with
+   * @param direction the direction from which we decode from
+   * @param state the current state of the connection
+   */
+  public MinecraftCompressDecoder(int threshold, VelocityCompressor compressor,
+      ProtocolUtils.Direction direction, StateRegistry state) {
     this.threshold = threshold;
     this.compressor = compressor;
+    this.direction = Preconditions.checkNotNull(direction, "direction");
+    setState(state);
   }
 
   @Override
@@ -36,8 +54,12 @@ public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
 
     checkFrame(claimedUncompressedSize >= threshold, "Uncompressed size %s is less than"
             + " threshold %s", claimedUncompressedSize, threshold);
-    int allowedMax = Math.min(claimedUncompressedSize, HARD_MAXIMUM_UNCOMPRESSED_SIZE);
-    int initialCapacity = Math.min(claimedUncompressedSize, SOFT_MAXIMUM_UNCOMPRESSED_SIZE);
+    checkFrame(claimedUncompressedSize <= maximumUncompressedSize, "Uncompressed size %s exceeds"
+        + " maximum %s", claimedUncompressedSize, maximumUncompressedSize);
+    int allowedMax = claimedUncompressedSize;
+    long expectedMax = (long) in.readableBytes() * EXPECTED_MAXIMUM_COMPRESSION_RATIO;
+    int initialCapacity = (int) Math.min(Math.min(claimedUncompressedSize, expectedMax),
+        SOFT_MAXIMUM_UNCOMPRESSED_SIZE);
 
     ByteBuf compatibleIn = ensureCompatible(ctx.alloc(), compressor, in);
     ByteBuf uncompressed = preferredBuffer(ctx.alloc(), compressor, initialCapacity);
@@ -52,6 +74,10 @@ public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
   }
 
+  public void setState(StateRegistry state) {
+    this.maximumUncompressedSize = PacketSizeLimits.getMaximumUncompressedSize(state, direction);
+  }
+
   @Override
   public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
     compressor.dispose();
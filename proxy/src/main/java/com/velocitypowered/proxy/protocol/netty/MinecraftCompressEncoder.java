@@ -4,6 +4,7 @@ import com.velocitypowered.natives.compression.VelocityCompressor;
 import com.velocitypowered.natives.util.MoreByteBufUtils;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
@@ -19,6 +20,45 @@ public class MinecraftCompressEncoder extends MessageToByteEncoder<ByteBuf> {
 
   @Override
   protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception {
+    compress(ctx.alloc(), compressor, threshold, msg, out);
+  }
+
+  @Override
+  protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect)
+      throws Exception {
+    return allocateBuffer(ctx.alloc(), compressor, threshold, msg);
+  }
+
+  /**
+   * Allocates a buffer suitable for {@link #compress(ByteBufAllocator, VelocityCompressor, int,
+   * ByteBuf, ByteBuf)}.
+   *
+   * @param alloc the allocator to use
+   * @param compressor the compressor that will be used
+   * @param threshold the compression threshold
+   * @param msg the uncompressed packet
+   * @return a buffer to write the compressed packet into
+   */
+  public static ByteBuf allocateBuffer(ByteBufAllocator alloc, VelocityCompressor compressor,
+      int threshold, ByteBuf msg) {
+    int initialBufferSize = msg.readableBytes() <= threshold ? msg.readableBytes() + 1 :
+        msg.readableBytes() / 3;
+    return MoreByteBufUtils.preferredBuffer(alloc, compressor, initialBufferSize);
+  }
+
+  /**
+   * Writes {@code msg} to {@code out} in the compressed packet format, compressing it with the
+   * given {@code compressor} if it is larger than the {@code threshold}.
+   *
+   * @param alloc the allocator to use for temporary buffers
+   * @param compressor the compressor to use
+   * @param threshold the compression threshold
+   * @param msg the uncompressed packet
+   * @param out the buffer to write the compressed packet to
+   * @throws Exception if the packet can't be compressed
+   */
+  public static void compress(ByteBufAllocator alloc, VelocityCompressor compressor, int threshold,
+      ByteBuf msg, ByteBuf out) throws Exception {
     int uncompressed = msg.readableBytes();
     if (uncompressed <= threshold) {
       // Under the threshold, there is nothing to do.
@@ -26,7 +66,7 @@ public class MinecraftCompressEncoder extends MessageToByteEncoder<ByteBuf> {
       out.writeBytes(msg);
     } else {
       ProtocolUtils.writeVarInt(out, uncompressed);
-      ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(ctx.alloc(), compressor, msg);
+      ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(alloc, compressor, msg);
       try {
         compressor.deflate(compatibleIn, out);
       } finally {
@@ -35,12 +75,8 @@ public class MinecraftCompressEncoder extends MessageToByteEncoder<ByteBuf> {
     }
   }
 
-  @Override
-  protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect)
-      throws Exception {
-    int initialBufferSize = msg.readableBytes() <= threshold ? msg.readableBytes() + 1 :
-        msg.readableBytes() / 3;
-    return MoreByteBufUtils.preferredBuffer(ctx.alloc(), compressor, initialBufferSize);
+  public int getThreshold() {
+    return threshold;
   }
 
   @Override
@@ -11,6 +11,8 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.CorruptedFrameException;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import java.util.List;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf> {
 
@@ -20,6 +22,8 @@ public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf> {
           + "developer, launch Velocity with -Dvelocity.packet-decode-logging=true to see more.");
 
   private final ProtocolUtils.Direction direction;
+  private final @Nullable Supplier<PacketRateLimiter> rateLimiterFactory;
+  private @Nullable PacketRateLimiter rateLimiter;
   private StateRegistry state;
   private StateRegistry.PacketRegistry.ProtocolRegistry registry;
 
@@ -29,7 +33,21 @@ public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf> {
    * @param direction the direction from which we decode from
    */
   public MinecraftDecoder(ProtocolUtils.Direction direction) {
+    this(direction, null);
+  }
+
+  /**
+   * Creates a new {@code MinecraftDecoder} decoding packets from the specified {@code direction},
+   * limiting how many packets may be received while playing. The rate limiter is only created
+   * once the connection enters the play state, so connections that never log in don't pay for it.
+   *
+   * @param direction the direction from which we decode from
+   * @param rateLimiterFactory creates the rate limiter to apply to packets, if any
+   */
+  public MinecraftDecoder(ProtocolUtils.Direction direction,
+      @Nullable Supplier<PacketRateLimiter> rateLimiterFactory) {
     this.direction = Preconditions.checkNotNull(direction, "direction");
+    this.rateLimiterFactory = rateLimiterFactory;
     this.registry = direction.getProtocolRegistry(StateRegistry.HANDSHAKE,
         ProtocolVersion.MINIMUM_VERSION);
     this.state = StateRegistry.HANDSHAKE;
@@ -45,6 +63,11 @@ public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf> {
 
     int packetId = ProtocolUtils.readVarInt(msg);
     MinecraftPacket packet = this.registry.createPacket(packetId);
+    if (rateLimiter != null && state == StateRegistry.PLAY
+        && !checkRateLimit(ctx, rateLimiter, packet)) {
+      msg.skipBytes(msg.readableBytes());
+      return;
+    }
     if (packet == null) {
       msg.skipBytes(msg.readableBytes());
       out.add(slice.retain());
@@ -62,6 +85,13 @@ public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
   }
 
+  private static boolean checkRateLimit(ChannelHandlerContext ctx, PacketRateLimiter rateLimiter,
+      @Nullable MinecraftPacket packet) {
+    long now = System.nanoTime();
+    PacketRateLimiter.Category exceeded = rateLimiter.acquire(packet, now);
+    return exceeded == null || rateLimiter.handleViolation(ctx, exceeded, now);
+  }
+
   private Exception handleNotReadEnough(MinecraftPacket packet, int packetId) {
     if (DEBUG) {
       return new CorruptedFrameException("Did not read full packet for " + packet.getClass() + " "
@@ -85,12 +115,25 @@ public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf> {
         + " ID " + Integer.toHexString(packetId);
   }
 
+  public ProtocolUtils.Direction getDirection() {
+    return direction;
+  }
+
   public void setProtocolVersion(ProtocolVersion protocolVersion) {
     this.registry = direction.getProtocolRegistry(state, protocolVersion);
   }
 
+  /**
+   * Sets the state of the connection, creating the rate limiter once the connection starts
+   * playing.
+   *
+   * @param state the new state
+   */
   public void setState(StateRegistry state) {
     this.state = state;
+    if (state == StateRegistry.PLAY && rateLimiter == null && rateLimiterFactory != null) {
+      this.rateLimiter = rateLimiterFactory.get();
+    }
     this.setProtocolVersion(registry.version);
   }
 }
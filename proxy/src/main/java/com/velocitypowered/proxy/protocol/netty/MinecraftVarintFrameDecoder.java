@@ -1,6 +1,10 @@
 package com.velocitypowered.proxy.protocol.netty;
 
+import static com.velocitypowered.proxy.protocol.util.NettyPreconditions.checkFrame;
+
+import com.google.common.base.Preconditions;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
@@ -9,6 +13,23 @@ import java.util.List;
 
 public class MinecraftVarintFrameDecoder extends ByteToMessageDecoder {
 
+  private final ProtocolUtils.Direction direction;
+  private int maximumFrameSize;
+
+  /**
+   * Creates a new {@code MinecraftVarintFrameDecoder} decoding frames from the specified
+   * {@code direction}.
+   *
+   * @param direction the direction from which we decode from
+   */
+  public MinecraftVarintFrameDecoder(ProtocolUtils.Direction direction) {
+    this.direction = Preconditions.checkNotNull(direction, "direction");
+    setState(StateRegistry.HANDSHAKE);
+    // Compact partially received frames after every read, so that a connection trickling in a
+    // frame only holds on to the bytes of that frame.
+    setDiscardAfterReads(1);
+  }
+
   @Override
   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
     if (!in.isReadable()) {
@@ -28,6 +49,10 @@ public class MinecraftVarintFrameDecoder extends ByteToMessageDecoder {
         in.readerIndex(origReaderIndex);
         int packetLength = ProtocolUtils.readVarInt(in);
 
+        // Refuse oversized frames before we start accumulating them.
+        checkFrame(packetLength <= maximumFrameSize, "Frame too big (got %s, maximum is %s)",
+            packetLength, maximumFrameSize);
+
         if (in.readableBytes() >= packetLength) {
           out.add(in.readRetainedSlice(packetLength));
         } else {
@@ -40,4 +65,17 @@ public class MinecraftVarintFrameDecoder extends ByteToMessageDecoder {
 
     throw new CorruptedFrameException("VarInt too big");
   }
+
+  /**
+   * Returns how many bytes of incomplete frames this decoder is holding on to.
+   *
+   * @return the number of buffered bytes
+   */
+  public int getBufferedBytes() {
+    return actualReadableBytes();
+  }
+
+  public void setState(StateRegistry state) {
+    this.maximumFrameSize = PacketSizeLimits.getMaximumFrameSize(state, direction);
+  }
 }
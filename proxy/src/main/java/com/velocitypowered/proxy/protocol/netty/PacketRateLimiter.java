@@ -0,0 +1,219 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.proxy.config.PacketLimitAction;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.packet.Chat;
+import com.velocitypowered.proxy.protocol.packet.Disconnect;
+import com.velocitypowered.proxy.protocol.packet.KeepAlive;
+import com.velocitypowered.proxy.protocol.packet.PluginMessage;
+import com.velocitypowered.proxy.protocol.packet.TabCompleteRequest;
+import io.netty.channel.ChannelHandlerContext;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import net.kyori.text.TextComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Limits how many packets per second a client may send while playing. Every packet counts against
+ * a limit on all packets, and some packets that are expensive to handle have a limit of their own.
+ *
+ * <p>Keep-alive responses are never limited, since dropping them would get the player timed
+ * out.</p>
+ *
+ * <p>Only packets over the limit of their own category are ever dropped. Those packets are chat
+ * messages, tab completions and plugin messages, which a client copes with losing. Dropping any
+ * other packet, such as a movement or a window click, would quietly desync the client from its
+ * server. So when the limit on all packets is exceeded, the {@link PacketLimitAction#DROP drop}
+ * action throttles the connection instead.</p>
+ *
+ * <p>Each limit is a token bucket holding up to one second worth of packets, tracked as the time
+ * at which the bucket would be full again, so that taking a token is a single comparison.</p>
+ *
+ * <p>Instances are not thread-safe. Each connection owns its own instance, and only uses it from
+ * the event loop of its channel.</p>
+ */
+public final class PacketRateLimiter {
+
+  private static final Logger logger = LogManager.getLogger(PacketRateLimiter.class);
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final PacketLimitAction action;
+  private final Statistics statistics;
+  private final long[] intervals = new long[Category.VALUES.length];
+  private final long[] fullAt = new long[Category.VALUES.length];
+  private boolean kicked;
+
+  /**
+   * Creates a new rate limiter using the limits of the specified {@code configuration}.
+   *
+   * @param configuration the configuration to read the limits from
+   * @param statistics where to count packets over the limits
+   */
+  public PacketRateLimiter(VelocityConfiguration configuration, Statistics statistics) {
+    this(configuration.getPacketRateLimitAction(), configuration.getPacketRateLimit(),
+        configuration.getChatPacketRateLimit(), configuration.getTabCompletePacketRateLimit(),
+        configuration.getPluginMessagePacketRateLimit(), statistics);
+  }
+
+  PacketRateLimiter(PacketLimitAction action, int packetRateLimit, int chatPacketRateLimit,
+      int tabCompletePacketRateLimit, int pluginMessagePacketRateLimit, Statistics statistics) {
+    this.action = Preconditions.checkNotNull(action, "action");
+    this.statistics = Preconditions.checkNotNull(statistics, "statistics");
+    setLimit(Category.ALL, packetRateLimit);
+    setLimit(Category.CHAT, chatPacketRateLimit);
+    setLimit(Category.TAB_COMPLETE, tabCompletePacketRateLimit);
+    setLimit(Category.PLUGIN_MESSAGE, pluginMessagePacketRateLimit);
+  }
+
+  private void setLimit(Category category, int packetsPerSecond) {
+    intervals[category.ordinal()] = packetsPerSecond <= 0 ? 0 : SECOND / packetsPerSecond;
+  }
+
+  /**
+   * Takes a token for the specified packet.
+   *
+   * @param packet the packet, or {@code null} if it is passed through without being decoded
+   * @param now the current time in nanoseconds
+   * @return the category whose limit the packet is over, or {@code null} if it may be handled
+   */
+  @Nullable Category acquire(@Nullable MinecraftPacket packet, long now) {
+    if (packet instanceof KeepAlive) {
+      return null;
+    }
+    if (!tryAcquire(Category.ALL, now)) {
+      return Category.ALL;
+    }
+    Category category = Category.of(packet);
+    if (category != Category.ALL && !tryAcquire(category, now)) {
+      return category;
+    }
+    return null;
+  }
+
+  private boolean tryAcquire(Category category, long now) {
+    int index = category.ordinal();
+    long interval = intervals[index];
+    if (interval == 0) {
+      return true;
+    }
+    // The bucket is full at fullAt, and holds one second worth of tokens. Taking a token moves
+    // fullAt one interval further, and the bucket is empty once fullAt is a second away.
+    long full = Math.max(fullAt[index], now);
+    if (full + interval - now > SECOND) {
+      return false;
+    }
+    fullAt[index] = full + interval;
+    return true;
+  }
+
+  /**
+   * Handles a packet over the limit of {@code category}.
+   *
+   * @param ctx the context of the decoder
+   * @param category the category whose limit was exceeded
+   * @param now the current time in nanoseconds
+   * @return whether the packet should still be handled
+   */
+  boolean handleViolation(ChannelHandlerContext ctx, Category category, long now) {
+    statistics.violations[category.ordinal()].increment();
+    PacketLimitAction effectiveAction = action == PacketLimitAction.DROP && category == Category.ALL
+        ? PacketLimitAction.THROTTLE : action;
+    switch (effectiveAction) {
+      case KICK:
+        if (!kicked) {
+          kicked = true;
+          logger.info("{} sent too many {} packets, disconnecting", ctx.channel().remoteAddress(),
+              category.getName());
+          MinecraftConnection connection = ctx.pipeline().get(MinecraftConnection.class);
+          if (connection != null) {
+            connection.closeWith(Disconnect.create(
+                TextComponent.of("You are sending too many packets!")));
+          } else {
+            ctx.close();
+          }
+        }
+        return false;
+      case THROTTLE: {
+        // Handle this packet, but don't read anything else until a packet may be sent again.
+        MinecraftConnection connection = ctx.pipeline().get(MinecraftConnection.class);
+        if (connection != null
+            && !connection.isReadingPaused(MinecraftConnection.ReadPause.RATE_LIMIT)) {
+          connection.pauseReading(MinecraftConnection.ReadPause.RATE_LIMIT);
+          long wait = fullAt[category.ordinal()] + intervals[category.ordinal()] - now - SECOND;
+          ctx.executor().schedule(
+              () -> connection.resumeReading(MinecraftConnection.ReadPause.RATE_LIMIT),
+              Math.max(wait, 1), TimeUnit.NANOSECONDS);
+        }
+        return true;
+      }
+      case DROP:
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * A group of packets with a limit of its own.
+   */
+  public enum Category {
+    ALL("all"),
+    CHAT("chat"),
+    TAB_COMPLETE("tab complete"),
+    PLUGIN_MESSAGE("plugin message");
+
+    private static final Category[] VALUES = values();
+
+    private final String name;
+
+    Category(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    static Category of(@Nullable MinecraftPacket packet) {
+      if (packet instanceof Chat) {
+        return CHAT;
+      } else if (packet instanceof TabCompleteRequest) {
+        return TAB_COMPLETE;
+      } else if (packet instanceof PluginMessage) {
+        return PLUGIN_MESSAGE;
+      }
+      return ALL;
+    }
+  }
+
+  /**
+   * Counts the packets over the limits, across all connections.
+   */
+  public static final class Statistics {
+
+    private final LongAdder[] violations = new LongAdder[Category.VALUES.length];
+
+    /**
+     * Creates a new set of counters.
+     */
+    public Statistics() {
+      for (int i = 0; i < violations.length; i++) {
+        violations[i] = new LongAdder();
+      }
+    }
+
+    /**
+     * Returns how many packets went over the limit of the specified {@code category}.
+     *
+     * @param category the category
+     * @return the number of packets over the limit
+     */
+    public long getViolations(Category category) {
+      return violations[category.ordinal()].sum();
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+
+/**
+ * The largest frames and uncompressed packets we accept, depending on the state of the connection
+ * and who sent them. Clients may only send a handful of small packets before the login starts, so
+ * we hold them to much smaller limits than the servers behind the proxy. While logging in, a client
+ * may still answer login plugin messages with up to 1MiB of data, such as a list of its mods.
+ */
+public final class PacketSizeLimits {
+
+  /**
+   * The largest frame length that fits in the 3-byte VarInt used by the protocol.
+   */
+  public static final int MAXIMUM_FRAME_SIZE = (1 << 21) - 1;
+
+  /**
+   * The largest uncompressed packet a server may send us.
+   */
+  public static final int MAXIMUM_UNCOMPRESSED_SIZE = 16 * 1024 * 1024; // 16MiB
+
+  private static final int HANDSHAKE_SERVERBOUND_SIZE = 8 * 1024; // 8KiB
+  private static final int STATUS_SERVERBOUND_SIZE = 1024; // 1KiB
+  // The data of a LoginPluginResponse may be up to 1MiB, plus the message id and success flag.
+  private static final int LOGIN_SERVERBOUND_SIZE = 1024 * 1024 + 16;
+  private static final int PLAY_SERVERBOUND_UNCOMPRESSED_SIZE = 2 * 1024 * 1024; // 2MiB
+
+  private PacketSizeLimits() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Returns the largest frame we accept in the specified {@code state} from the specified
+   * {@code direction}.
+   *
+   * @param state the state of the connection
+   * @param direction the direction the frame is travelling in
+   * @return the largest frame length, in bytes
+   */
+  public static int getMaximumFrameSize(StateRegistry state, ProtocolUtils.Direction direction) {
+    if (direction == ProtocolUtils.Direction.CLIENTBOUND) {
+      return MAXIMUM_FRAME_SIZE;
+    }
+    switch (state) {
+      case HANDSHAKE:
+        return HANDSHAKE_SERVERBOUND_SIZE;
+      case STATUS:
+        return STATUS_SERVERBOUND_SIZE;
+      case LOGIN:
+        return LOGIN_SERVERBOUND_SIZE;
+      default:
+        return MAXIMUM_FRAME_SIZE;
+    }
+  }
+
+  /**
+   * Returns the largest uncompressed packet we accept in the specified {@code state} from the
+   * specified {@code direction}.
+   *
+   * @param state the state of the connection
+   * @param direction the direction the packet is travelling in
+   * @return the largest uncompressed packet, in bytes
+   */
+  public static int getMaximumUncompressedSize(StateRegistry state,
+      ProtocolUtils.Direction direction) {
+    if (direction == ProtocolUtils.Direction.CLIENTBOUND) {
+      return MAXIMUM_UNCOMPRESSED_SIZE;
+    }
+    switch (state) {
+      case HANDSHAKE:
+        return HANDSHAKE_SERVERBOUND_SIZE;
+      case STATUS:
+        return STATUS_SERVERBOUND_SIZE;
+      case LOGIN:
+        return LOGIN_SERVERBOUND_SIZE;
+      default:
+        return PLAY_SERVERBOUND_UNCOMPRESSED_SIZE;
+    }
+  }
+}
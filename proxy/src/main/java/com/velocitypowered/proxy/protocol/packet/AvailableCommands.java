@@ -4,6 +4,7 @@ import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
@@ -23,12 +24,15 @@ import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.ProtocolUtils.Direction;
 import com.velocitypowered.proxy.protocol.packet.brigadier.ArgumentPropertyRegistry;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
@@ -47,19 +51,55 @@ public class AvailableCommands implements MinecraftPacket {
   // Note: Velocity doesn't use Brigadier for command handling. This may change in Velocity 2.0.0.
   private @MonotonicNonNull RootCommandNode<Object> rootNode;
 
+  // The command graph as it was sent by the server. It is only turned into Brigadier nodes if
+  // somebody asks for the root node.
+  private byte @Nullable [] encoded;
+  private @Nullable EncodedLiterals injected;
+
   /**
-   * Returns the root node.
+   * Returns the root node. If the packet was deserialized, this builds the whole command graph.
    * @return the root node
    */
   public RootCommandNode<Object> getRootNode() {
     if (rootNode == null) {
-      throw new IllegalStateException("Packet not yet deserialized");
+      if (encoded == null) {
+        throw new IllegalStateException("Packet not yet deserialized");
+      }
+      rootNode = decodeGraph(Unpooled.wrappedBuffer(encoded));
+      encoded = null;
+      if (injected != null) {
+        injected.addTo(rootNode);
+        injected = null;
+      }
     }
     return rootNode;
   }
 
+  /**
+   * Adds the specified literal nodes to the root of the command graph. If the graph has not been
+   * built yet, the already encoded nodes are spliced into the graph sent by the server when the
+   * packet is encoded, without building the graph.
+   *
+   * @param literals the literals to add
+   */
+  public void injectLiterals(EncodedLiterals literals) {
+    if (rootNode != null) {
+      literals.addTo(rootNode);
+    } else {
+      if (injected != null) {
+        throw new IllegalStateException("Literals were already injected");
+      }
+      injected = literals;
+    }
+  }
+
   @Override
   public void decode(ByteBuf buf, Direction direction, ProtocolVersion protocolVersion) {
+    encoded = new byte[buf.readableBytes()];
+    buf.readBytes(encoded);
+  }
+
+  private static RootCommandNode<Object> decodeGraph(ByteBuf buf) {
     int commands = ProtocolUtils.readVarInt(buf);
     WireNode[] wireNodes = new WireNode[commands];
     for (int i = 0; i < commands; i++) {
@@ -87,11 +127,16 @@ public class AvailableCommands implements MinecraftPacket {
     }
 
     int rootIdx = ProtocolUtils.readVarInt(buf);
-    rootNode = (RootCommandNode<Object>) wireNodes[rootIdx].built;
+    return (RootCommandNode<Object>) wireNodes[rootIdx].built;
   }
 
   @Override
   public void encode(ByteBuf buf, Direction direction, ProtocolVersion protocolVersion) {
+    if (rootNode == null && encoded != null) {
+      encodeSpliced(buf);
+      return;
+    }
+
     // Assign all the children an index.
     Deque<CommandNode<Object>> childrenQueue = new ArrayDeque<>(ImmutableList.of(rootNode));
     Object2IntMap<CommandNode<Object>> idMappings = new Object2IntLinkedOpenHashMap<>();
@@ -165,6 +210,88 @@ public class AvailableCommands implements MinecraftPacket {
     }
   }
 
+  /**
+   * Writes the graph sent by the server, adding any injected literals to the root node. Only the
+   * root node is rewritten; all other nodes are copied as-is.
+   */
+  private void encodeSpliced(ByteBuf buf) {
+    if (encoded == null) {
+      throw new IllegalStateException("Packet not yet deserialized");
+    }
+    ByteBuf in = Unpooled.wrappedBuffer(encoded);
+    if (injected == null) {
+      buf.writeBytes(in);
+      return;
+    }
+
+    int commands = ProtocolUtils.readVarInt(in);
+    int[] nodeStarts = new int[commands + 1];
+    for (int i = 0; i < commands; i++) {
+      nodeStarts[i] = in.readerIndex();
+      skipNode(in);
+    }
+    nodeStarts[commands] = in.readerIndex();
+    int rootIdx = ProtocolUtils.readVarInt(in);
+    if (rootIdx < 0 || rootIdx >= commands) {
+      throw new IllegalStateException("Root node points to non-existent index " + rootIdx);
+    }
+
+    ProtocolUtils.writeVarInt(buf, commands + injected.getNodeCount());
+    buf.writeBytes(in, nodeStarts[0], nodeStarts[rootIdx] - nodeStarts[0]);
+
+    // Rewrite the root node with the additional children. The injected nodes come after all the
+    // nodes sent by the server.
+    in.readerIndex(nodeStarts[rootIdx]);
+    buf.writeByte(in.readByte());
+    int[] children = ProtocolUtils.readIntegerArray(in);
+    ProtocolUtils.writeVarInt(buf, children.length + injected.getLiteralCount());
+    for (int child : children) {
+      ProtocolUtils.writeVarInt(buf, child);
+    }
+    injected.writeRootChildren(buf, commands);
+    int rootRest = in.readerIndex();
+    buf.writeBytes(in, rootRest, nodeStarts[commands] - rootRest);
+
+    injected.writeNodes(buf, commands);
+    ProtocolUtils.writeVarInt(buf, rootIdx);
+  }
+
+  private static void skipNode(ByteBuf buf) {
+    byte flags = buf.readByte();
+    int children = ProtocolUtils.readVarInt(buf);
+    for (int i = 0; i < children; i++) {
+      ProtocolUtils.readVarInt(buf);
+    }
+    if ((flags & FLAG_IS_REDIRECT) > 0) {
+      ProtocolUtils.readVarInt(buf);
+    }
+
+    switch (flags & FLAG_NODE_TYPE) {
+      case NODE_TYPE_ROOT:
+        break;
+      case NODE_TYPE_LITERAL:
+        skipString(buf);
+        break;
+      case NODE_TYPE_ARGUMENT:
+        skipString(buf);
+        ArgumentPropertyRegistry.deserialize(buf);
+        if ((flags & FLAG_HAS_SUGGESTIONS) != 0) {
+          skipString(buf);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown node type " + (flags & FLAG_NODE_TYPE));
+    }
+  }
+
+  private static void skipString(ByteBuf buf) {
+    int length = ProtocolUtils.readVarInt(buf);
+    if (length < 0 || !buf.isReadable(length)) {
+      throw new IllegalStateException("Bad string size " + length);
+    }
+    buf.skipBytes(length);
+  }
+
   @Override
   public boolean handle(MinecraftSessionHandler handler) {
     return handler.handle(this);
@@ -296,6 +423,99 @@ public class AvailableCommands implements MinecraftPacket {
     }
   }
 
+  /**
+   * A set of literal nodes to add to the root of a command graph, which are encoded ahead of time.
+   * Each literal takes a single greedy string argument, which asks the server (and so the proxy)
+   * for suggestions, and all the literals share the same argument node.
+   */
+  public static final class EncodedLiterals {
+
+    private static final String ARGUMENT_NAME = "args";
+    private static final String ARGUMENT_SUGGESTIONS = "minecraft:ask_server";
+
+    private final List<String> literals;
+    private final byte[] argumentNode;
+    private final byte[][] literalNames;
+
+    /**
+     * Encodes the specified literals.
+     *
+     * @param literals the names of the literals to encode
+     */
+    public EncodedLiterals(List<String> literals) {
+      this.literals = ImmutableList.copyOf(literals);
+
+      ByteBuf buf = ByteBufAllocator.DEFAULT.heapBuffer();
+      try {
+        buf.writeByte(NODE_TYPE_ARGUMENT | FLAG_HAS_SUGGESTIONS);
+        ProtocolUtils.writeVarInt(buf, 0);
+        ProtocolUtils.writeString(buf, ARGUMENT_NAME);
+        ArgumentPropertyRegistry.serialize(buf, StringArgumentType.greedyString());
+        ProtocolUtils.writeString(buf, ARGUMENT_SUGGESTIONS);
+        this.argumentNode = new byte[buf.readableBytes()];
+        buf.readBytes(this.argumentNode);
+
+        this.literalNames = new byte[this.literals.size()][];
+        for (int i = 0; i < this.literals.size(); i++) {
+          buf.clear();
+          ProtocolUtils.writeString(buf, this.literals.get(i));
+          this.literalNames[i] = new byte[buf.readableBytes()];
+          buf.readBytes(this.literalNames[i]);
+        }
+      } finally {
+        buf.release();
+      }
+    }
+
+    public List<String> getLiterals() {
+      return literals;
+    }
+
+    int getLiteralCount() {
+      return literalNames.length;
+    }
+
+    int getNodeCount() {
+      return literalNames.length == 0 ? 0 : literalNames.length + 1;
+    }
+
+    void writeRootChildren(ByteBuf buf, int firstIndex) {
+      for (int i = 0; i < literalNames.length; i++) {
+        ProtocolUtils.writeVarInt(buf, firstIndex + 1 + i);
+      }
+    }
+
+    void writeNodes(ByteBuf buf, int firstIndex) {
+      if (literalNames.length == 0) {
+        return;
+      }
+      buf.writeBytes(argumentNode);
+      for (byte[] name : literalNames) {
+        buf.writeByte(NODE_TYPE_LITERAL | FLAG_EXECUTABLE);
+        ProtocolUtils.writeVarInt(buf, 1);
+        ProtocolUtils.writeVarInt(buf, firstIndex);
+        buf.writeBytes(name);
+      }
+    }
+
+    /**
+     * Adds the literals to an already built command graph.
+     *
+     * @param root the root node of the graph
+     */
+    public void addTo(RootCommandNode<Object> root) {
+      for (String literal : literals) {
+        LiteralCommandNode<Object> node = LiteralArgumentBuilder.literal(literal)
+            .then(RequiredArgumentBuilder.argument(ARGUMENT_NAME, StringArgumentType.greedyString())
+                .suggests(new ProtocolSuggestionProvider(ARGUMENT_SUGGESTIONS))
+                .build())
+            .executes((ctx) -> 0)
+            .build();
+        root.addChild(node);
+      }
+    }
+  }
+
   /**
    * A placeholder {@link SuggestionProvider} used internally to preserve the suggestion provider
    * name.
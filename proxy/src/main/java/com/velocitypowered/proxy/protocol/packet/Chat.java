@@ -13,6 +13,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 public class Chat implements MinecraftPacket {
 
   public static final byte CHAT_TYPE = (byte) 0;
+  public static final byte GAME_INFO_TYPE = (byte) 2;
   public static final int MAX_SERVERBOUND_MESSAGE_LENGTH = 256;
 
   private @Nullable String message;
@@ -6,7 +6,9 @@ import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.util.ChannelNameTable;
 import com.velocitypowered.proxy.protocol.util.DeferredByteBufHolder;
+import com.velocitypowered.proxy.protocol.util.PluginMessageRoute;
 import io.netty.buffer.ByteBuf;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -14,6 +16,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 public class PluginMessage extends DeferredByteBufHolder implements MinecraftPacket {
 
   private @Nullable String channel;
+  private @Nullable PluginMessageRoute route;
 
   public PluginMessage() {
     super(null);
@@ -34,6 +37,20 @@ public class PluginMessage extends DeferredByteBufHolder implements MinecraftPac
 
   public void setChannel(String channel) {
     this.channel = channel;
+    this.route = null;
+  }
+
+  /**
+   * Returns how the proxy should handle this plugin message, based on its channel.
+   *
+   * @return the route for this plugin message
+   */
+  public PluginMessageRoute getRoute() {
+    if (route == null) {
+      ChannelNameTable.Entry known = ChannelNameTable.get(getChannel());
+      route = known == null ? PluginMessageRoute.OTHER : known.getRoute();
+    }
+    return route;
   }
 
   @Override
@@ -46,9 +63,18 @@ public class PluginMessage extends DeferredByteBufHolder implements MinecraftPac
 
   @Override
   public void decode(ByteBuf buf, ProtocolUtils.Direction direction, ProtocolVersion version) {
-    this.channel = ProtocolUtils.readString(buf);
-    if (version.compareTo(ProtocolVersion.MINECRAFT_1_13) >= 0) {
-      this.channel = transformLegacyToModernChannel(this.channel);
+    ChannelNameTable.Entry known = ChannelNameTable.read(buf);
+    if (known != null) {
+      this.channel = version.compareTo(ProtocolVersion.MINECRAFT_1_13) >= 0
+          ? known.getModernName() : known.getName();
+      this.route = known.getRoute();
+    } else {
+      // Every channel the proxy handles specially is known, so this needs no further routing.
+      this.channel = ProtocolUtils.readString(buf);
+      if (version.compareTo(ProtocolVersion.MINECRAFT_1_13) >= 0) {
+        this.channel = transformLegacyToModernChannel(this.channel);
+      }
+      this.route = PluginMessageRoute.OTHER;
     }
     if (version.compareTo(ProtocolVersion.MINECRAFT_1_8) >= 0) {
       this.replace(buf.readRetainedSlice(buf.readableBytes()));
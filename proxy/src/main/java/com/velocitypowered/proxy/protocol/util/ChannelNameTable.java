@@ -0,0 +1,197 @@
+package com.velocitypowered.proxy.protocol.util;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Interns the names of known plugin message channels. Known channels are looked up directly from
+ * their encoded UTF-8 form, so decoding a plugin message on a known channel does not allocate a
+ * new {@link String}, and its {@link PluginMessageRoute} is resolved with the same lookup.
+ *
+ * <p>Only channels used by the proxy itself and channels registered by plugins are known, so
+ * clients can't grow the table by sending messages on arbitrary channels.</p>
+ */
+public final class ChannelNameTable {
+
+  private static final Map<String, Entry> entriesByName = new ConcurrentHashMap<>();
+  private static volatile Entry[] table = new Entry[64];
+
+  static {
+    register(PluginMessageUtil.REGISTER_CHANNEL_LEGACY, PluginMessageRoute.REGISTER);
+    register(PluginMessageUtil.REGISTER_CHANNEL, PluginMessageRoute.REGISTER);
+    register(PluginMessageUtil.UNREGISTER_CHANNEL_LEGACY, PluginMessageRoute.UNREGISTER);
+    register(PluginMessageUtil.UNREGISTER_CHANNEL, PluginMessageRoute.UNREGISTER);
+    register(PluginMessageUtil.BRAND_CHANNEL_LEGACY, PluginMessageRoute.BRAND);
+    register(PluginMessageUtil.BRAND_CHANNEL, PluginMessageRoute.BRAND);
+    register("BungeeCord", PluginMessageRoute.OTHER);
+    register("bungeecord:main", PluginMessageRoute.OTHER);
+  }
+
+  private ChannelNameTable() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Adds the specified channel to the table, if it is not already known.
+   *
+   * @param name the name of the channel
+   */
+  public static void register(String name) {
+    Preconditions.checkNotNull(name, "name");
+    if (!entriesByName.containsKey(name)) {
+      register(name, PluginMessageRoute.OTHER);
+    }
+  }
+
+  private static synchronized void register(String name, PluginMessageRoute route) {
+    if (entriesByName.containsKey(name)) {
+      return;
+    }
+
+    Entry entry = new Entry(name, PluginMessageUtil.transformLegacyToModernChannel(name), route);
+    Entry[] current = table;
+    // Keep the load factor at or below 0.5 so that probe sequences stay short.
+    int size = entriesByName.size() + 1;
+    Entry[] updated = new Entry[Math.max(current.length, Integer.highestOneBit(size * 4 - 1))];
+    for (Entry existing : current) {
+      if (existing != null) {
+        insert(updated, existing);
+      }
+    }
+    insert(updated, entry);
+    entriesByName.put(name, entry);
+    table = updated;
+  }
+
+  private static void insert(Entry[] table, Entry entry) {
+    int mask = table.length - 1;
+    int i = entry.hash & mask;
+    while (table[i] != null) {
+      i = (i + 1) & mask;
+    }
+    table[i] = entry;
+  }
+
+  /**
+   * Returns the entry for the specified channel name, if it is known.
+   *
+   * @param name the name of the channel
+   * @return the entry for the channel, or {@code null} if it is not known
+   */
+  public static @Nullable Entry get(String name) {
+    return entriesByName.get(name);
+  }
+
+  /**
+   * Attempts to read a VarInt length-prefixed channel name from the {@code buf}. If the channel is
+   * known, its name is consumed from the buffer and its entry is returned. Otherwise, the reader
+   * index of the buffer is left untouched and {@code null} is returned.
+   *
+   * @param buf the buffer to read from
+   * @return the entry for the channel, or {@code null} if it is not known
+   */
+  public static @Nullable Entry read(ByteBuf buf) {
+    int start = buf.readerIndex();
+    int length = ProtocolUtils.readVarInt(buf);
+    if (length >= 0 && buf.isReadable(length)) {
+      Entry entry = lookup(buf, buf.readerIndex(), length);
+      if (entry != null) {
+        buf.skipBytes(length);
+        return entry;
+      }
+    }
+    buf.readerIndex(start);
+    return null;
+  }
+
+  private static @Nullable Entry lookup(ByteBuf buf, int index, int length) {
+    Entry[] table = ChannelNameTable.table;
+    int hash = hash(buf, index, length);
+    int mask = table.length - 1;
+    for (int i = hash & mask; ; i = (i + 1) & mask) {
+      Entry entry = table[i];
+      if (entry == null) {
+        return null;
+      }
+      if (entry.hash == hash && entry.matches(buf, index, length)) {
+        return entry;
+      }
+    }
+  }
+
+  private static int hash(ByteBuf buf, int index, int length) {
+    int hash = 1;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + buf.getByte(index + i);
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * A known plugin message channel.
+   */
+  public static final class Entry {
+
+    private final byte[] encoded;
+    private final int hash;
+    private final String name;
+    private final String modernName;
+    private final PluginMessageRoute route;
+
+    private Entry(String name, String modernName, PluginMessageRoute route) {
+      this.encoded = name.getBytes(StandardCharsets.UTF_8);
+      this.name = name;
+      this.modernName = modernName;
+      this.route = route;
+      int hash = 1;
+      for (byte b : encoded) {
+        hash = 31 * hash + b;
+      }
+      this.hash = hash ^ (hash >>> 16);
+    }
+
+    private boolean matches(ByteBuf buf, int index, int length) {
+      if (encoded.length != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (encoded[i] != buf.getByte(index + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Returns the name of this channel for Minecraft 1.13 and above.
+     *
+     * @return the modern name of this channel
+     */
+    public String getModernName() {
+      return modernName;
+    }
+
+    public PluginMessageRoute getRoute() {
+      return route;
+    }
+
+    @Override
+    public String toString() {
+      return "Entry{"
+          + "name='" + name + '\''
+          + ", encoded=" + Arrays.toString(encoded)
+          + ", route=" + route
+          + '}';
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.velocitypowered.proxy.protocol.util;
+
+/**
+ * Describes how the proxy needs to handle a plugin message, based on its channel.
+ */
+public enum PluginMessageRoute {
+  /**
+   * The message registers plugin channels.
+   */
+  REGISTER,
+  /**
+   * The message unregisters plugin channels.
+   */
+  UNREGISTER,
+  /**
+   * The message contains the client or server brand.
+   */
+  BRAND,
+  /**
+   * The message is not handled specially by the proxy.
+   */
+  OTHER
+}
@@ -19,12 +19,12 @@ import java.util.regex.Pattern;
 
 public class PluginMessageUtil {
 
-  private static final String BRAND_CHANNEL_LEGACY = "MC|Brand";
-  private static final String BRAND_CHANNEL = "minecraft:brand";
-  private static final String REGISTER_CHANNEL_LEGACY = "REGISTER";
-  private static final String REGISTER_CHANNEL = "minecraft:register";
-  private static final String UNREGISTER_CHANNEL_LEGACY = "UNREGISTER";
-  private static final String UNREGISTER_CHANNEL = "minecraft:unregister";
+  static final String BRAND_CHANNEL_LEGACY = "MC|Brand";
+  static final String BRAND_CHANNEL = "minecraft:brand";
+  static final String REGISTER_CHANNEL_LEGACY = "REGISTER";
+  static final String REGISTER_CHANNEL = "minecraft:register";
+  static final String UNREGISTER_CHANNEL_LEGACY = "UNREGISTER";
+  static final String UNREGISTER_CHANNEL = "minecraft:unregister";
 
   private PluginMessageUtil() {
     throw new AssertionError();
@@ -37,8 +37,7 @@ public class PluginMessageUtil {
    */
   public static boolean isMcBrand(PluginMessage message) {
     checkNotNull(message, "message");
-    return message.getChannel().equals(BRAND_CHANNEL_LEGACY) || message.getChannel()
-        .equals(BRAND_CHANNEL);
+    return message.getRoute() == PluginMessageRoute.BRAND;
   }
 
   /**
@@ -48,8 +47,7 @@ public class PluginMessageUtil {
    */
   public static boolean isRegister(PluginMessage message) {
     checkNotNull(message, "message");
-    return message.getChannel().equals(REGISTER_CHANNEL_LEGACY) || message.getChannel()
-        .equals(REGISTER_CHANNEL);
+    return message.getRoute() == PluginMessageRoute.REGISTER;
   }
 
   /**
@@ -59,8 +57,7 @@ public class PluginMessageUtil {
    */
   public static boolean isUnregister(PluginMessage message) {
     checkNotNull(message, "message");
-    return message.getChannel().equals(UNREGISTER_CHANNEL_LEGACY) || message.getChannel()
-        .equals(UNREGISTER_CHANNEL);
+    return message.getRoute() == PluginMessageRoute.UNREGISTER;
   }
 
   /**
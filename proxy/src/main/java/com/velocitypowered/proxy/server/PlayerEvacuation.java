@@ -0,0 +1,141 @@
+package com.velocitypowered.proxy.server;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import net.kyori.text.Component;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Moves a group of players to their fallback servers without blocking the caller. At most a fixed
+ * number of players are moved at the same time, so that a large evacuation doesn't overwhelm the
+ * fallback servers. Players that can't be moved anywhere are disconnected.
+ */
+public final class PlayerEvacuation {
+
+  private final Queue<Player> pending;
+  private final Function<Player, @Nullable CompletableFuture<Boolean>> mover;
+  private final int total;
+  private final int concurrency;
+  private final Component failureReason;
+  private final AtomicInteger remaining;
+  private final AtomicInteger moved = new AtomicInteger();
+  private final AtomicInteger disconnected = new AtomicInteger();
+  private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+  /**
+   * Creates a new evacuation.
+   *
+   * @param players the players to move
+   * @param concurrency how many players may be moved at the same time
+   * @param failureReason the message to disconnect players that can't be moved with
+   */
+  public PlayerEvacuation(Collection<ConnectedPlayer> players, int concurrency,
+      Component failureReason) {
+    this(players, concurrency, failureReason, PlayerEvacuation::moveToNextServer);
+  }
+
+  PlayerEvacuation(Collection<? extends Player> players, int concurrency,
+      Component failureReason, Function<Player, @Nullable CompletableFuture<Boolean>> mover) {
+    Preconditions.checkArgument(concurrency > 0, "concurrency must be positive");
+    this.pending = new ConcurrentLinkedQueue<>(players);
+    this.mover = Preconditions.checkNotNull(mover, "mover");
+    this.total = this.pending.size();
+    this.concurrency = concurrency;
+    this.failureReason = Preconditions.checkNotNull(failureReason, "failureReason");
+    this.remaining = new AtomicInteger(total);
+  }
+
+  /**
+   * Starts moving players.
+   *
+   * @return a future completed once every player was moved or disconnected
+   */
+  public CompletableFuture<Void> start() {
+    if (total == 0) {
+      completion.complete(null);
+      return completion;
+    }
+    for (int i = 0; i < concurrency; i++) {
+      moveNext();
+    }
+    return completion;
+  }
+
+  /**
+   * Starts moving the {@code player} to the next server in their try list.
+   *
+   * @param player the player to move
+   * @return a future completed with whether the player was moved, or {@code null} if there is no
+   *         server to move the player to
+   */
+  private static @Nullable CompletableFuture<Boolean> moveToNextServer(Player player) {
+    Optional<RegisteredServer> next = ((ConnectedPlayer) player).getNextServerToTry();
+    return next.map(server -> player.createConnectionRequest(server).connectWithIndication())
+        .orElse(null);
+  }
+
+  private void moveNext() {
+    Player player;
+    while ((player = pending.poll()) != null) {
+      if (!player.isActive()) {
+        finish();
+        continue;
+      }
+
+      @Nullable CompletableFuture<Boolean> move = mover.apply(player);
+      if (move != null) {
+        Player moving = player;
+        move.whenComplete((success, ex) -> {
+          if (ex != null || success == null || !success) {
+            moving.disconnect(failureReason);
+            disconnected.incrementAndGet();
+          } else {
+            moved.incrementAndGet();
+          }
+          finish();
+          moveNext();
+        });
+        return;
+      }
+
+      player.disconnect(failureReason);
+      disconnected.incrementAndGet();
+      finish();
+    }
+  }
+
+  private void finish() {
+    if (remaining.decrementAndGet() == 0) {
+      completion.complete(null);
+    }
+  }
+
+  public int getTotal() {
+    return total;
+  }
+
+  public int getMoved() {
+    return moved.get();
+  }
+
+  public int getDisconnected() {
+    return disconnected.get();
+  }
+
+  public int getRemaining() {
+    return remaining.get();
+  }
+
+  public CompletableFuture<Void> getCompletion() {
+    return completion;
+  }
+}
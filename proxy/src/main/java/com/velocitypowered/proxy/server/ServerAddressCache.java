@@ -0,0 +1,115 @@
+package com.velocitypowered.proxy.server;
+
+import com.velocitypowered.proxy.network.BackendAddressResolver;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Remembers the resolved address of a backend server. Once the DNS records for the address
+ * expire, the address is refreshed in the background while the old one keeps being used. If the
+ * refresh fails, the old address is kept around and the refresh is retried a little later.
+ */
+public final class ServerAddressCache {
+
+  private static final Logger logger = LogManager.getLogger(ServerAddressCache.class);
+  private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+  private final InetSocketAddress address;
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private volatile @Nullable InetSocketAddress resolved;
+  private volatile long refreshAt;
+
+  private final AtomicLong resolutions = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong totalResolutionNanos = new AtomicLong();
+  private volatile long lastResolutionNanos;
+
+  ServerAddressCache(InetSocketAddress address) {
+    this.address = address;
+  }
+
+  /**
+   * Returns the address to connect to. If no address has been resolved yet, the unresolved
+   * address is returned, so the connection will resolve it on its own.
+   *
+   * @param resolver the resolver to use if the address must be refreshed
+   * @return the address to connect to
+   */
+  public InetSocketAddress get(BackendAddressResolver resolver) {
+    if (!address.isUnresolved()) {
+      return address;
+    }
+
+    InetSocketAddress current = resolved;
+    if (current == null || System.nanoTime() - refreshAt >= 0) {
+      refresh(resolver);
+    }
+    return current == null ? address : current;
+  }
+
+  /**
+   * Starts resolving the address in the background, unless a refresh is already in progress.
+   *
+   * @param resolver the resolver to use
+   */
+  public void refresh(BackendAddressResolver resolver) {
+    if (!address.isUnresolved() || !refreshing.compareAndSet(false, true)) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    resolver.resolve(address.getHostString()).whenComplete((resolution, throwable) -> {
+      long now = System.nanoTime();
+      long elapsed = now - start;
+      lastResolutionNanos = elapsed;
+      totalResolutionNanos.addAndGet(elapsed);
+      resolutions.incrementAndGet();
+
+      if (throwable == null) {
+        resolved = new InetSocketAddress(resolution.getAddress(), address.getPort());
+        refreshAt = now + TimeUnit.SECONDS.toNanos(resolution.getTtlSeconds());
+        logger.debug("Resolved {} to {} in {}ms (TTL {}s)", address.getHostString(),
+            resolution.getAddress().getHostAddress(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+            resolution.getTtlSeconds());
+      } else {
+        failures.incrementAndGet();
+        refreshAt = now + RETRY_NANOS;
+        InetSocketAddress stale = resolved;
+        if (stale != null) {
+          logger.warn("Unable to resolve {}, using the last known address {}",
+              address.getHostString(), stale.getAddress().getHostAddress(), throwable);
+        } else {
+          logger.debug("Unable to resolve {}", address.getHostString(), throwable);
+        }
+      }
+      refreshing.set(false);
+    });
+  }
+
+  public long getResolutionCount() {
+    return resolutions.get();
+  }
+
+  public long getFailureCount() {
+    return failures.get();
+  }
+
+  public long getLastResolutionNanos() {
+    return lastResolutionNanos;
+  }
+
+  /**
+   * Returns the average time taken to resolve the address.
+   *
+   * @return the average resolution time in nanoseconds, or 0 if the address was never resolved
+   */
+  public long getAverageResolutionNanos() {
+    long count = resolutions.get();
+    return count == 0 ? 0 : totalResolutionNanos.get() / count;
+  }
+}
@@ -0,0 +1,130 @@
+package com.velocitypowered.proxy.server;
+
+import com.google.common.collect.ImmutableList;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.ServerBalancingStrategy;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides in which order a player should try the servers of a group, such as the try list or the
+ * servers of a forced host, according to the configured {@link ServerBalancingStrategy}.
+ */
+public final class ServerBalancer {
+
+  private static final double MIN_SUCCESS_RATE = 0.05;
+
+  private final VelocityServer server;
+  private final Map<List<String>, RoundRobin> roundRobins = new ConcurrentHashMap<>();
+
+  public ServerBalancer(VelocityServer server) {
+    this.server = server;
+  }
+
+  /**
+   * Orders the servers in the {@code group}. The server the player should connect to comes
+   * first, and the remaining servers are used as fallbacks.
+   *
+   * @param group the names of the servers in the group
+   * @return the servers to try, in order
+   */
+  public List<String> order(List<String> group) {
+    if (group.size() <= 1) {
+      return group;
+    }
+
+    VelocityConfiguration configuration = server.getConfiguration();
+    switch (configuration.getServerBalancing()) {
+      case LEAST_PLAYERS: {
+        List<String> ordered = new ArrayList<>(group);
+        ordered.sort(Comparator.comparingInt(this::getPlayerCount));
+        return ordered;
+      }
+      case ROUND_ROBIN:
+        return rotate(group, roundRobins.computeIfAbsent(ImmutableList.copyOf(group),
+            RoundRobin::new).next(configuration));
+      case POWER_OF_TWO:
+        return rotate(group, pickOfTwo(group, configuration));
+      default:
+        return group;
+    }
+  }
+
+  private int pickOfTwo(List<String> group, VelocityConfiguration configuration) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(group.size());
+    int second = random.nextInt(group.size() - 1);
+    if (second >= first) {
+      second++;
+    }
+    return getLoad(group.get(first), configuration) <= getLoad(group.get(second), configuration)
+        ? first : second;
+  }
+
+  private double getLoad(String name, VelocityConfiguration configuration) {
+    Optional<RegisteredServer> registered = server.getServer(name);
+    if (!registered.isPresent()) {
+      return Double.POSITIVE_INFINITY;
+    }
+    VelocityRegisteredServer rs = (VelocityRegisteredServer) registered.get();
+    VelocityServerHealth health = rs.getHealth();
+    if (!health.isAcceptingConnections()) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double successRate = Math.max(MIN_SUCCESS_RATE, health.getConnectSuccessRate());
+    return (rs.getPlayerCount() + 1) / (configuration.getServerWeight(name) * successRate);
+  }
+
+  private int getPlayerCount(String name) {
+    return server.getServer(name)
+        .map(rs -> ((VelocityRegisteredServer) rs).getPlayerCount())
+        .orElse(Integer.MAX_VALUE);
+  }
+
+  private static List<String> rotate(List<String> group, int first) {
+    if (first == 0) {
+      return group;
+    }
+    List<String> rotated = new ArrayList<>(group.size());
+    rotated.addAll(group.subList(first, group.size()));
+    rotated.addAll(group.subList(0, first));
+    return rotated;
+  }
+
+  /**
+   * Smooth weighted round robin: every server receives its share of picks, and picks of the same
+   * server are spread out instead of happening in a row.
+   */
+  private static final class RoundRobin {
+
+    private final List<String> group;
+    private final int[] current;
+
+    private RoundRobin(List<String> group) {
+      this.group = group;
+      this.current = new int[group.size()];
+    }
+
+    synchronized int next(VelocityConfiguration configuration) {
+      int total = 0;
+      int best = 0;
+      for (int i = 0; i < current.length; i++) {
+        int weight = configuration.getServerWeight(group.get(i));
+        current[i] += weight;
+        total += weight;
+        if (current[i] > current[best]) {
+          best = i;
+        }
+      }
+      current[best] -= total;
+      return best;
+    }
+  }
+}
@@ -53,12 +53,35 @@ public class ServerMap {
       throw new IllegalArgumentException(
           "Server with name " + serverInfo.getName() + " already registered");
     } else if (existing == null) {
+      rs.preresolveAddress();
       return rs;
     } else {
       return existing;
     }
   }
 
+  /**
+   * Replaces the registered server with the same name as {@code serverInfo}. Unlike unregistering
+   * and registering the server again, the name never stops resolving to a server.
+   *
+   * @param serverInfo the new information of the server
+   * @return the server that was replaced
+   */
+  public RegisteredServer replace(ServerInfo serverInfo) {
+    Preconditions.checkNotNull(serverInfo, "serverInfo");
+    String lowerName = serverInfo.getName().toLowerCase(Locale.US);
+    RegisteredServer existing = servers.get(lowerName);
+    if (existing == null) {
+      throw new IllegalArgumentException(
+          "Server with name " + serverInfo.getName() + " is not registered!");
+    }
+    VelocityRegisteredServer rs = new VelocityRegisteredServer(server, serverInfo);
+    Preconditions.checkState(servers.replace(lowerName, existing, rs),
+        "Server with name %s replaced whilst replacing", serverInfo.getName());
+    rs.preresolveAddress();
+    return existing;
+  }
+
   /**
    * Unregisters the specified server from the proxy.
    *
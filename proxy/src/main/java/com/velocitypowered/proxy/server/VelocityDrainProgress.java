@@ -0,0 +1,132 @@
+package com.velocitypowered.proxy.server;
+
+import com.google.common.base.MoreObjects;
+import com.velocitypowered.api.proxy.DrainProgress;
+import com.velocitypowered.api.proxy.Player;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import net.kyori.text.Component;
+import net.kyori.text.TextComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Drains the proxy. Once the drain has started, the proxy refuses new logins, lets connected
+ * players stay until they leave on their own, and disconnects the remaining players at the
+ * deadline.
+ */
+public final class VelocityDrainProgress implements DrainProgress {
+
+  private static final Logger logger = LogManager.getLogger(VelocityDrainProgress.class);
+  private static final long CHECK_INTERVAL_MILLIS = 1000;
+  private static final Component DEADLINE_REASON = TextComponent.of(
+      "This proxy is restarting, please connect again.");
+
+  private final Supplier<Collection<Player>> players;
+  private final Instant deadline;
+  private final long timeoutMillis;
+  private final int initialPlayerCount;
+  private final CompletableFuture<Void> completion = new CompletableFuture<>();
+  private @Nullable ScheduledFuture<?> checkTask;
+  private @Nullable ScheduledFuture<?> deadlineTask;
+
+  /**
+   * Creates a new drain. The drain does nothing until it is {@link #start(ScheduledExecutorService)
+   * started}.
+   *
+   * @param players supplies the players connected to the proxy
+   * @param timeout how long connected players may stay on the proxy
+   */
+  public VelocityDrainProgress(Supplier<Collection<Player>> players, Duration timeout) {
+    this.players = players;
+    this.timeoutMillis = Math.max(0, timeout.toMillis());
+    this.deadline = Instant.now().plusMillis(timeoutMillis);
+    this.initialPlayerCount = players.get().size();
+  }
+
+  /**
+   * Starts draining.
+   *
+   * @param executor the executor to schedule checks and the deadline on
+   */
+  public synchronized void start(ScheduledExecutorService executor) {
+    logger.info("Draining the proxy, {} players will be disconnected in {} seconds",
+        initialPlayerCount, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis));
+    checkTask = executor.scheduleWithFixedDelay(this::check, 0, CHECK_INTERVAL_MILLIS,
+        TimeUnit.MILLISECONDS);
+    deadlineTask = executor.schedule(this::disconnectRemaining, timeoutMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  synchronized void check() {
+    if (!completion.isDone() && players.get().isEmpty()) {
+      complete();
+    }
+  }
+
+  synchronized void disconnectRemaining() {
+    if (completion.isDone()) {
+      return;
+    }
+    Collection<Player> remaining = players.get();
+    logger.info("The drain deadline has passed, disconnecting {} remaining players",
+        remaining.size());
+    for (Player player : remaining) {
+      player.disconnect(DEADLINE_REASON);
+    }
+    complete();
+  }
+
+  private void complete() {
+    if (checkTask != null) {
+      checkTask.cancel(false);
+    }
+    if (deadlineTask != null) {
+      deadlineTask.cancel(false);
+    }
+    logger.info("The proxy has been drained");
+    completion.complete(null);
+  }
+
+  @Override
+  public Instant getDeadline() {
+    return deadline;
+  }
+
+  @Override
+  public int getInitialPlayerCount() {
+    return initialPlayerCount;
+  }
+
+  @Override
+  public int getRemainingPlayerCount() {
+    return players.get().size();
+  }
+
+  @Override
+  public boolean isComplete() {
+    return completion.isDone();
+  }
+
+  @Override
+  public CompletableFuture<Void> getCompletion() {
+    return completion;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("deadline", deadline)
+        .add("initialPlayerCount", initialPlayerCount)
+        .add("remainingPlayerCount", getRemainingPlayerCount())
+        .add("complete", isComplete())
+        .toString();
+  }
+}
@@ -32,6 +32,7 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoop;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -44,10 +45,20 @@ public class VelocityRegisteredServer implements RegisteredServer {
   private final @Nullable VelocityServer server;
   private final ServerInfo serverInfo;
   private final Set<ConnectedPlayer> players = ConcurrentHashMap.newKeySet();
+  private final ServerAddressCache addressCache;
+  private final VelocityServerHealth health;
 
+  /**
+   * Creates a new registered server.
+   *
+   * @param server the proxy, or {@code null} if there is none
+   * @param serverInfo the server's information
+   */
   public VelocityRegisteredServer(@Nullable VelocityServer server, ServerInfo serverInfo) {
     this.server = server;
     this.serverInfo = Preconditions.checkNotNull(serverInfo, "serverInfo");
+    this.addressCache = new ServerAddressCache(serverInfo.getAddress());
+    this.health = new VelocityServerHealth(server, serverInfo.getName());
   }
 
   @Override
@@ -55,6 +66,37 @@ public class VelocityRegisteredServer implements RegisteredServer {
     return serverInfo;
   }
 
+  /**
+   * Returns the address to connect to when opening a connection to this server. If the proxy
+   * caches server addresses, this is the last address the server's hostname resolved to.
+   *
+   * @return the address to connect to
+   */
+  public InetSocketAddress getConnectAddress() {
+    if (server == null || !server.getConfiguration().isCacheServerAddresses()) {
+      return serverInfo.getAddress();
+    }
+    return addressCache.get(server.getBackendAddressResolver());
+  }
+
+  /**
+   * Starts resolving the address of this server ahead of the first connection to it.
+   */
+  public void preresolveAddress() {
+    if (server != null && server.getConfiguration().isCacheServerAddresses()) {
+      addressCache.refresh(server.getBackendAddressResolver());
+    }
+  }
+
+  public ServerAddressCache getAddressCache() {
+    return addressCache;
+  }
+
+  @Override
+  public VelocityServerHealth getHealth() {
+    return health;
+  }
+
   @Override
   public Collection<Player> getPlayersConnected() {
     return ImmutableList.copyOf(players);
@@ -85,7 +127,8 @@ public class VelocityRegisteredServer implements RegisteredServer {
                 .addLast(READ_TIMEOUT,
                     new ReadTimeoutHandler(server.getConfiguration().getReadTimeout(),
                         TimeUnit.MILLISECONDS))
-                .addLast(FRAME_DECODER, new MinecraftVarintFrameDecoder())
+                .addLast(FRAME_DECODER,
+                    new MinecraftVarintFrameDecoder(ProtocolUtils.Direction.CLIENTBOUND))
                 .addLast(FRAME_ENCODER, MinecraftVarintLengthEncoder.INSTANCE)
                 .addLast(MINECRAFT_DECODER,
                     new MinecraftDecoder(ProtocolUtils.Direction.CLIENTBOUND))
@@ -95,7 +138,7 @@ public class VelocityRegisteredServer implements RegisteredServer {
             ch.pipeline().addLast(HANDLER, new MinecraftConnection(ch, server));
           }
         })
-        .connect(serverInfo.getAddress())
+        .connect(getConnectAddress())
         .addListener(new ChannelFutureListener() {
           @Override
           public void operationComplete(ChannelFuture future) throws Exception {
@@ -108,9 +151,20 @@ public class VelocityRegisteredServer implements RegisteredServer {
             }
           }
         });
+    pingFuture.whenComplete((ping, throwable) -> {
+      if (throwable == null) {
+        health.recordSuccess(-1);
+      } else {
+        health.recordFailure();
+      }
+    });
     return pingFuture;
   }
 
+  public int getPlayerCount() {
+    return players.size();
+  }
+
   public void addPlayer(ConnectedPlayer player) {
     players.add(player);
   }
@@ -0,0 +1,174 @@
+package com.velocitypowered.proxy.server;
+
+import com.google.common.base.MoreObjects;
+import com.velocitypowered.api.proxy.server.ServerHealth;
+import com.velocitypowered.proxy.VelocityServer;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Tracks the health of a backend server. Once too many connection attempts fail in a row, the
+ * server is marked as unavailable and connections to it fail immediately. After a cooldown, a
+ * single connection attempt is let through to check whether the server has recovered.
+ */
+public final class VelocityServerHealth implements ServerHealth {
+
+  private static final Logger logger = LogManager.getLogger(VelocityServerHealth.class);
+  private static final int WINDOW_SIZE = 20;
+  private static final double LATENCY_WEIGHT = 0.2;
+
+  private final @Nullable VelocityServer server;
+  private final String name;
+
+  private final boolean[] outcomes = new boolean[WINDOW_SIZE];
+  private int outcomeCount;
+  private int nextOutcome;
+  private int successes;
+  private int consecutiveFailures;
+  private double averageLatencyNanos = -1;
+
+  private State state = State.HEALTHY;
+  private long unavailableSince;
+  private boolean trialInFlight;
+
+  VelocityServerHealth(@Nullable VelocityServer server, String name) {
+    this.server = server;
+    this.name = name;
+  }
+
+  @Override
+  public synchronized State getState() {
+    return state;
+  }
+
+  @Override
+  public synchronized double getConnectSuccessRate() {
+    return outcomeCount == 0 ? 1 : (double) successes / outcomeCount;
+  }
+
+  @Override
+  public synchronized long getAverageLoginLatency() {
+    return averageLatencyNanos < 0 ? -1
+        : TimeUnit.NANOSECONDS.toMillis((long) averageLatencyNanos);
+  }
+
+  @Override
+  public synchronized int getConsecutiveFailures() {
+    return consecutiveFailures;
+  }
+
+  /**
+   * Returns whether a connection attempt to the server would currently be let through.
+   *
+   * @return whether the server accepts connections
+   */
+  public synchronized boolean isAcceptingConnections() {
+    switch (state) {
+      case UNAVAILABLE:
+        return cooldownElapsed();
+      case RECOVERING:
+        return !trialInFlight;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Asks for permission to connect to the server. If permission is granted, the outcome of the
+   * connection attempt must be reported with {@link #recordSuccess(long)} or
+   * {@link #recordFailure()}.
+   *
+   * @return whether the connection attempt may proceed
+   */
+  public synchronized boolean tryAcquire() {
+    switch (state) {
+      case UNAVAILABLE:
+        if (!cooldownElapsed()) {
+          return false;
+        }
+        state = State.RECOVERING;
+        trialInFlight = true;
+        return true;
+      case RECOVERING:
+        if (trialInFlight) {
+          return false;
+        }
+        trialInFlight = true;
+        return true;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Records a successful connection to the server.
+   *
+   * @param latencyNanos how long it took to log in to the server, or {@code -1} if the connection
+   *                     was not a login
+   */
+  public synchronized void recordSuccess(long latencyNanos) {
+    recordOutcome(true);
+    consecutiveFailures = 0;
+    if (latencyNanos >= 0) {
+      averageLatencyNanos = averageLatencyNanos < 0 ? latencyNanos
+          : averageLatencyNanos + LATENCY_WEIGHT * (latencyNanos - averageLatencyNanos);
+    }
+    trialInFlight = false;
+    if (state != State.HEALTHY) {
+      logger.info("Server {} has recovered", name);
+      state = State.HEALTHY;
+    }
+  }
+
+  /**
+   * Records a failed connection attempt to the server.
+   */
+  public synchronized void recordFailure() {
+    recordOutcome(false);
+    consecutiveFailures++;
+    trialInFlight = false;
+
+    int threshold = server == null ? 0 : server.getConfiguration().getServerFailureThreshold();
+    if (state == State.RECOVERING
+        || (state == State.HEALTHY && threshold > 0 && consecutiveFailures >= threshold)) {
+      if (state == State.HEALTHY) {
+        logger.warn("Server {} failed {} connection attempts in a row, marking it as unavailable",
+            name, consecutiveFailures);
+      }
+      state = State.UNAVAILABLE;
+      unavailableSince = System.nanoTime();
+    }
+  }
+
+  private void recordOutcome(boolean success) {
+    if (outcomeCount == WINDOW_SIZE) {
+      if (outcomes[nextOutcome]) {
+        successes--;
+      }
+    } else {
+      outcomeCount++;
+    }
+    outcomes[nextOutcome] = success;
+    if (success) {
+      successes++;
+    }
+    nextOutcome = (nextOutcome + 1) % WINDOW_SIZE;
+  }
+
+  private boolean cooldownElapsed() {
+    long cooldown = server == null ? 0 : server.getConfiguration().getServerRecoveryCooldown();
+    return System.nanoTime() - unavailableSince >= TimeUnit.MILLISECONDS.toNanos(cooldown);
+  }
+
+  @Override
+  public synchronized String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("state", state)
+        .add("connectSuccessRate", getConnectSuccessRate())
+        .add("averageLoginLatency", getAverageLoginLatency())
+        .add("consecutiveFailures", consecutiveFailures)
+        .toString();
+  }
+}
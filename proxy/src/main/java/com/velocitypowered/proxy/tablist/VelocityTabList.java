@@ -10,21 +10,45 @@ import com.velocitypowered.proxy.protocol.packet.PlayerListItem;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import net.kyori.text.Component;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class VelocityTabList implements TabList {
 
+  /**
+   * How long to collect changes for before sending them when batching is enabled. This is one
+   * server tick.
+   */
+  private static final long BATCH_INTERVAL_MILLIS = 50;
+
   protected final MinecraftConnection connection;
   protected final Map<UUID, VelocityTabListEntry> entries = new ConcurrentHashMap<>();
+  private final boolean batchUpdates;
+  private final Map<UUID, PendingChange> pendingChanges = new LinkedHashMap<>();
+  private boolean flushScheduled;
 
   public VelocityTabList(MinecraftConnection connection) {
+    this(connection, false);
+  }
+
+  /**
+   * Creates a new tab list.
+   *
+   * @param connection the connection to send the tab list to
+   * @param batchUpdates whether changes should be collected and sent once per tick
+   */
+  public VelocityTabList(MinecraftConnection connection, boolean batchUpdates) {
     this.connection = connection;
+    this.batchUpdates = batchUpdates;
   }
 
   @Override
@@ -42,31 +66,83 @@ public class VelocityTabList implements TabList {
   @Override
   public void addEntry(TabListEntry entry) {
     Preconditions.checkNotNull(entry, "entry");
-    Preconditions.checkArgument(entry.getTabList().equals(this),
-        "The provided entry was not created by this tab list");
-    Preconditions.checkArgument(!entries.containsKey(entry.getProfile().getId()),
-        "this TabList already contains an entry with the same uuid");
-    Preconditions.checkArgument(entry instanceof VelocityTabListEntry,
-        "Not a Velocity tab list entry");
+    addEntriesInternal(Collections.singletonList(entry));
+  }
+
+  @Override
+  public void addEntries(Collection<TabListEntry> entries) {
+    Preconditions.checkNotNull(entries, "entries");
+    addEntriesInternal(entries);
+  }
+
+  private void addEntriesInternal(Collection<TabListEntry> entries) {
+    Set<UUID> seen = new HashSet<>();
+    for (TabListEntry entry : entries) {
+      Preconditions.checkNotNull(entry, "entry");
+      Preconditions.checkArgument(entry.getTabList().equals(this),
+          "The provided entry was not created by this tab list");
+      Preconditions.checkArgument(!this.entries.containsKey(entry.getProfile().getId())
+              && seen.add(entry.getProfile().getId()),
+          "this TabList already contains an entry with the same uuid");
+      Preconditions.checkArgument(entry instanceof VelocityTabListEntry,
+          "Not a Velocity tab list entry");
+    }
 
-    PlayerListItem.Item packetItem = PlayerListItem.Item.from(entry);
-    connection.write(
-        new PlayerListItem(PlayerListItem.ADD_PLAYER, Collections.singletonList(packetItem)));
-    entries.put(entry.getProfile().getId(), (VelocityTabListEntry) entry);
+    if (entries.isEmpty()) {
+      return;
+    }
+    for (TabListEntry entry : entries) {
+      this.entries.put(entry.getProfile().getId(), (VelocityTabListEntry) entry);
+    }
+    sendChange(PlayerListItem.ADD_PLAYER, entries);
   }
 
   @Override
   public Optional<TabListEntry> removeEntry(UUID uuid) {
     Preconditions.checkNotNull(uuid, "uuid");
 
-    TabListEntry entry = entries.remove(uuid);
-    if (entry != null) {
-      PlayerListItem.Item packetItem = PlayerListItem.Item.from(entry);
-      connection.write(
-          new PlayerListItem(PlayerListItem.REMOVE_PLAYER, Collections.singletonList(packetItem)));
+    Collection<TabListEntry> removed = removeEntriesInternal(Collections.singletonList(uuid));
+    return removed.stream().findFirst();
+  }
+
+  @Override
+  public Collection<TabListEntry> removeEntries(Collection<UUID> uuids) {
+    Preconditions.checkNotNull(uuids, "uuids");
+    return removeEntriesInternal(uuids);
+  }
+
+  private Collection<TabListEntry> removeEntriesInternal(Collection<UUID> uuids) {
+    List<TabListEntry> removed = new ArrayList<>();
+    for (UUID uuid : uuids) {
+      Preconditions.checkNotNull(uuid, "uuid");
+      TabListEntry entry = entries.remove(uuid);
+      if (entry != null) {
+        removed.add(entry);
+      }
     }
 
-    return Optional.ofNullable(entry);
+    if (!removed.isEmpty()) {
+      sendChange(PlayerListItem.REMOVE_PLAYER, removed);
+    }
+    return Collections.unmodifiableList(removed);
+  }
+
+  @Override
+  public void updateLatencies(Map<UUID, Integer> latencies) {
+    Preconditions.checkNotNull(latencies, "latencies");
+
+    List<TabListEntry> updated = new ArrayList<>(latencies.size());
+    for (Map.Entry<UUID, Integer> latency : latencies.entrySet()) {
+      VelocityTabListEntry entry = entries.get(latency.getKey());
+      if (entry != null) {
+        entry.setLatencyInternal(latency.getValue());
+        updated.add(entry);
+      }
+    }
+
+    if (!updated.isEmpty()) {
+      sendChange(PlayerListItem.UPDATE_LATENCY, updated);
+    }
   }
 
   @Override
@@ -81,6 +157,9 @@ public class VelocityTabList implements TabList {
    * MinecraftConnection#flush()}.
    */
   public void clearAll() {
+    // Make sure the client knows about everything it needs to remove.
+    writePendingChanges();
+
     List<PlayerListItem.Item> items = new ArrayList<>();
     for (TabListEntry value : entries.values()) {
       items.add(PlayerListItem.Item.from(value));
@@ -167,8 +246,143 @@ public class VelocityTabList implements TabList {
 
   void updateEntry(int action, TabListEntry entry) {
     if (entries.containsKey(entry.getProfile().getId())) {
-      PlayerListItem.Item packetItem = PlayerListItem.Item.from(entry);
-      connection.write(new PlayerListItem(action, Collections.singletonList(packetItem)));
+      sendChange(action, Collections.singletonList(entry));
+    }
+  }
+
+  private void sendChange(int action, Collection<? extends TabListEntry> changed) {
+    if (!batchUpdates) {
+      List<PlayerListItem.Item> items = new ArrayList<>(changed.size());
+      for (TabListEntry entry : changed) {
+        items.add(PlayerListItem.Item.from(entry));
+      }
+      connection.write(new PlayerListItem(action, items));
+      return;
+    }
+
+    synchronized (pendingChanges) {
+      for (TabListEntry entry : changed) {
+        UUID uuid = entry.getProfile().getId();
+        PendingChange change = pendingChanges.computeIfAbsent(uuid, PendingChange::new);
+        change.merge(action);
+        if (change.isEmpty()) {
+          pendingChanges.remove(uuid);
+        }
+      }
+
+      if (!flushScheduled && !pendingChanges.isEmpty()) {
+        flushScheduled = true;
+        connection.eventLoop().schedule(this::flushPendingChanges, BATCH_INTERVAL_MILLIS,
+            TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  private void flushPendingChanges() {
+    writePendingChanges();
+    connection.flush();
+  }
+
+  /**
+   * Writes all pending changes to the connection, merged into one packet per action. Note that
+   * the packets are written with {@link MinecraftConnection#delayedWrite(Object)}, so make sure to
+   * do an explicit {@link MinecraftConnection#flush()}.
+   */
+  private void writePendingChanges() {
+    if (!batchUpdates) {
+      return;
+    }
+
+    List<PendingChange> changes;
+    synchronized (pendingChanges) {
+      flushScheduled = false;
+      if (pendingChanges.isEmpty()) {
+        return;
+      }
+      changes = new ArrayList<>(pendingChanges.values());
+      pendingChanges.clear();
+    }
+
+    // Removals go first, so that an entry which was removed and added again is replaced.
+    List<PlayerListItem.Item> removed = new ArrayList<>();
+    for (PendingChange change : changes) {
+      if (change.remove) {
+        removed.add(new PlayerListItem.Item(change.uuid));
+      }
+    }
+    writeItems(PlayerListItem.REMOVE_PLAYER, removed);
+
+    int[] actions = { PlayerListItem.ADD_PLAYER, PlayerListItem.UPDATE_GAMEMODE,
+        PlayerListItem.UPDATE_LATENCY, PlayerListItem.UPDATE_DISPLAY_NAME };
+    for (int action : actions) {
+      List<PlayerListItem.Item> items = new ArrayList<>();
+      for (PendingChange change : changes) {
+        if (!change.has(action)) {
+          continue;
+        }
+        // Always send the current state of the entry, since it may have changed several times.
+        VelocityTabListEntry entry = entries.get(change.uuid);
+        if (entry != null) {
+          items.add(PlayerListItem.Item.from(entry));
+        }
+      }
+      writeItems(action, items);
+    }
+  }
+
+  private void writeItems(int action, List<PlayerListItem.Item> items) {
+    if (!items.isEmpty()) {
+      connection.delayedWrite(new PlayerListItem(action, items));
+    }
+  }
+
+  /**
+   * The changes to a single entry that have not been sent to the client yet.
+   */
+  private static final class PendingChange {
+
+    private final UUID uuid;
+    private boolean remove;
+    private boolean add;
+    private int updates;
+
+    private PendingChange(UUID uuid) {
+      this.uuid = uuid;
+    }
+
+    void merge(int action) {
+      switch (action) {
+        case PlayerListItem.ADD_PLAYER:
+          // Adding the entry sends its full state, so any pending updates are redundant.
+          add = true;
+          updates = 0;
+          break;
+        case PlayerListItem.REMOVE_PLAYER:
+          updates = 0;
+          if (add) {
+            // The client never saw this entry, so cancel the add instead.
+            add = false;
+          } else {
+            remove = true;
+          }
+          break;
+        default:
+          if (!add) {
+            updates |= 1 << action;
+          }
+          break;
+      }
+    }
+
+    boolean has(int action) {
+      if (action == PlayerListItem.ADD_PLAYER) {
+        return add;
+      }
+      return (updates & (1 << action)) != 0;
+    }
+
+    boolean isEmpty() {
+      return !remove && !add && updates == 0;
     }
   }
 }
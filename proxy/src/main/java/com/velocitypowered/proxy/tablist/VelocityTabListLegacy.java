@@ -6,6 +6,7 @@ import com.velocitypowered.api.util.GameProfile;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
 import com.velocitypowered.proxy.protocol.packet.PlayerListItem;
 import com.velocitypowered.proxy.protocol.packet.PlayerListItem.Item;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
@@ -36,6 +37,14 @@ public class VelocityTabListLegacy extends VelocityTabList {
     nameMapping.put(entry.getProfile().getName(), entry.getProfile().getId());
   }
 
+  @Override
+  public void addEntries(Collection<TabListEntry> entries) {
+    // 1.7 only allows one item per packet
+    for (TabListEntry entry : entries) {
+      addEntry(entry);
+    }
+  }
+
   @Override
   public Optional<TabListEntry> removeEntry(UUID uuid) {
     Optional<TabListEntry> entry = super.removeEntry(uuid);
@@ -43,6 +52,25 @@ public class VelocityTabListLegacy extends VelocityTabList {
     return entry;
   }
 
+  @Override
+  public Collection<TabListEntry> removeEntries(Collection<UUID> uuids) {
+    ImmutableList.Builder<TabListEntry> removed = ImmutableList.builder();
+    for (UUID uuid : uuids) {
+      removeEntry(uuid).ifPresent(removed::add);
+    }
+    return removed.build();
+  }
+
+  @Override
+  public void updateLatencies(Map<UUID, Integer> latencies) {
+    for (Map.Entry<UUID, Integer> latency : latencies.entrySet()) {
+      VelocityTabListEntry entry = entries.get(latency.getKey());
+      if (entry != null) {
+        entry.setLatency(latency.getValue());
+      }
+    }
+  }
+
   @Override
   public void clearAll() {
     for (TabListEntry value : entries.values()) {
@@ -0,0 +1,65 @@
+package com.velocitypowered.proxy.util;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.api.permission.PermissionFunction;
+import com.velocitypowered.api.permission.Tristate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link PermissionFunction} that remembers the results of another function. Once the cache is
+ * full, it is emptied entirely, which keeps lookups cheap and avoids any per-entry bookkeeping.
+ */
+public final class CachingPermissionFunction implements PermissionFunction {
+
+  private final PermissionFunction delegate;
+  private final int maximumSize;
+  private final Map<String, Tristate> cache = new ConcurrentHashMap<>();
+  private volatile int generation;
+
+  /**
+   * Creates a new caching permission function.
+   *
+   * @param delegate the function to cache the results of
+   * @param maximumSize the maximum number of results to cache
+   */
+  public CachingPermissionFunction(PermissionFunction delegate, int maximumSize) {
+    Preconditions.checkArgument(maximumSize > 0, "maximumSize must be positive");
+    this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+    this.maximumSize = maximumSize;
+  }
+
+  @Override
+  public Tristate getPermissionValue(String permission) {
+    Tristate cached = cache.get(permission);
+    if (cached != null) {
+      return cached;
+    }
+
+    int generation = this.generation;
+    Tristate value = delegate.getPermissionValue(permission);
+    if (value != null) {
+      if (cache.size() >= maximumSize) {
+        cache.clear();
+      }
+      cache.put(permission, value);
+      if (this.generation != generation) {
+        // The cache was invalidated while we asked the delegate, so our result may be stale.
+        cache.remove(permission);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Discards all cached results.
+   */
+  public synchronized void invalidate() {
+    generation++;
+    cache.clear();
+  }
+
+  public PermissionFunction getDelegate() {
+    return delegate;
+  }
+}
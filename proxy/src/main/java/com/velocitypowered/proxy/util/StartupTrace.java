@@ -0,0 +1,149 @@
+package com.velocitypowered.proxy.util;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Records how long each phase of the proxy startup took. Phases may run on the startup thread or
+ * in the background, next to other phases.
+ */
+public final class StartupTrace {
+
+  private static final Logger logger = LogManager.getLogger(StartupTrace.class);
+
+  private final long startNanos = System.nanoTime();
+  private final List<Phase> phases = new ArrayList<>();
+
+  /**
+   * Starts a phase on the current thread. The phase lasts until {@link Phase#end()} is called.
+   *
+   * @param name the name of the phase
+   * @return the phase
+   */
+  public Phase begin(String name) {
+    Phase phase = new Phase(name, false);
+    synchronized (phases) {
+      phases.add(phase);
+    }
+    return phase;
+  }
+
+  /**
+   * Runs a phase on the current thread.
+   *
+   * @param name the name of the phase
+   * @param runnable the work done by the phase
+   */
+  public void time(String name, Runnable runnable) {
+    Preconditions.checkNotNull(runnable, "runnable");
+    Phase phase = begin(name);
+    try {
+      runnable.run();
+    } finally {
+      phase.end();
+    }
+  }
+
+  /**
+   * Runs a phase on the current thread.
+   *
+   * @param name the name of the phase
+   * @param supplier the work done by the phase
+   * @param <T> the result of the phase
+   * @return the result of the phase
+   */
+  public <T> T time(String name, Supplier<T> supplier) {
+    Preconditions.checkNotNull(supplier, "supplier");
+    Phase phase = begin(name);
+    try {
+      return supplier.get();
+    } finally {
+      phase.end();
+    }
+  }
+
+  /**
+   * Runs a phase in the background.
+   *
+   * @param name the name of the phase
+   * @param supplier the work done by the phase
+   * @param executor the executor to run the phase on
+   * @param <T> the result of the phase
+   * @return a future completed with the result of the phase
+   */
+  public <T> CompletableFuture<T> beginAsync(String name, Supplier<T> supplier,
+      Executor executor) {
+    Preconditions.checkNotNull(supplier, "supplier");
+    return CompletableFuture.supplyAsync(() -> {
+      Phase phase = new Phase(name, true);
+      synchronized (phases) {
+        phases.add(phase);
+      }
+      try {
+        return supplier.get();
+      } finally {
+        phase.end();
+      }
+    }, executor);
+  }
+
+  /**
+   * Logs how long each phase took, and how long the startup took overall.
+   */
+  public void report() {
+    long totalNanos = System.nanoTime() - startNanos;
+    StringBuilder report = new StringBuilder();
+    synchronized (phases) {
+      for (Phase phase : phases) {
+        if (report.length() > 0) {
+          report.append(", ");
+        }
+        report.append(phase.name).append(' ').append(toMillis(phase.getDurationNanos()))
+            .append(" ms");
+        if (phase.background) {
+          report.append(" (background)");
+        }
+      }
+    }
+    logger.info("Startup took {} ms: {}", toMillis(totalNanos), report);
+  }
+
+  private static String toMillis(long nanos) {
+    return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+  }
+
+  /**
+   * A phase of the startup.
+   */
+  public static final class Phase {
+
+    private final String name;
+    private final boolean background;
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    private Phase(String name, boolean background) {
+      this.name = Preconditions.checkNotNull(name, "name");
+      this.background = background;
+    }
+
+    long getDurationNanos() {
+      long end = endNanos;
+      return (end == 0 ? System.nanoTime() : end) - startNanos;
+    }
+
+    /**
+     * Ends the phase.
+     */
+    public void end() {
+      endNanos = System.nanoTime();
+    }
+  }
+}
@@ -6,6 +6,7 @@ import com.velocitypowered.api.proxy.messages.ChannelIdentifier;
 import com.velocitypowered.api.proxy.messages.ChannelRegistrar;
 import com.velocitypowered.api.proxy.messages.LegacyChannelIdentifier;
 import com.velocitypowered.api.proxy.messages.MinecraftChannelIdentifier;
+import com.velocitypowered.proxy.protocol.util.ChannelNameTable;
 import com.velocitypowered.proxy.protocol.util.PluginMessageUtil;
 import java.util.Collection;
 import java.util.HashSet;
@@ -28,10 +29,14 @@ public class VelocityChannelRegistrar implements ChannelRegistrar {
     for (ChannelIdentifier identifier : identifiers) {
       if (identifier instanceof MinecraftChannelIdentifier) {
         identifierMap.put(identifier.getId(), identifier);
+        ChannelNameTable.register(identifier.getId());
       } else {
         String rewritten = PluginMessageUtil.transformLegacyToModernChannel(identifier.getId());
         identifierMap.put(identifier.getId(), identifier);
         identifierMap.put(rewritten, identifier);
+        // Messages on registered channels can then be decoded without allocating their names.
+        ChannelNameTable.register(identifier.getId());
+        ChannelNameTable.register(rewritten);
       }
     }
   }
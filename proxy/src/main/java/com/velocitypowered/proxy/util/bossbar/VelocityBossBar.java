@@ -3,12 +3,14 @@ package com.velocitypowered.proxy.util.bossbar;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.util.bossbar.BossBarColor;
 import com.velocitypowered.api.util.bossbar.BossBarFlag;
 import com.velocitypowered.api.util.bossbar.BossBarOverlay;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.network.PacketBroadcaster;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.packet.BossBar;
 import java.util.ArrayList;
@@ -18,12 +20,27 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import net.kyori.text.Component;
 import net.kyori.text.serializer.gson.GsonComponentSerializer;
 
 public class VelocityBossBar implements com.velocitypowered.api.util.bossbar.BossBar {
 
-  private final List<Player> players;
+  /**
+   * How long to wait before sending updates to the title, percent, style or flags of the bar, so
+   * that several changes made within the same tick are sent as a single packet.
+   */
+  private static final long UPDATE_COALESCE_MILLIS = 50;
+
+  private static final int DIRTY_NAME = 0x1;
+  private static final int DIRTY_PERCENT = 0x2;
+  private static final int DIRTY_STYLE = 0x4;
+  private static final int DIRTY_FLAGS = 0x8;
+
+  private final PacketBroadcaster broadcaster;
+  private final ScheduledExecutorService updateExecutor;
+  private final Set<Player> players;
   private final Set<BossBarFlag> flags;
   private final UUID uuid;
   private boolean visible;
@@ -31,16 +48,22 @@ public class VelocityBossBar implements com.velocitypowered.api.util.bossbar.Bos
   private float percent;
   private BossBarColor color;
   private BossBarOverlay overlay;
+  private int dirty;
+  private boolean updateScheduled;
 
   /**
    * Creates a new boss bar.
+   * @param broadcaster the broadcaster to send packets with
+   * @param updateExecutor the executor used to send coalesced updates
    * @param title the title for the bar
    * @param color the color of the bar
    * @param overlay the overlay to use
    * @param percent the percent of the bar
    */
-  public VelocityBossBar(
+  public VelocityBossBar(PacketBroadcaster broadcaster, ScheduledExecutorService updateExecutor,
       Component title, BossBarColor color, BossBarOverlay overlay, float percent) {
+    this.broadcaster = checkNotNull(broadcaster, "broadcaster");
+    this.updateExecutor = checkNotNull(updateExecutor, "updateExecutor");
     this.title = checkNotNull(title, "title");
     this.color = checkNotNull(color, "color");
     this.overlay = checkNotNull(overlay, "overlay");
@@ -48,48 +71,60 @@ public class VelocityBossBar implements com.velocitypowered.api.util.bossbar.Bos
     checkPercent(percent);
     this.uuid = UUID.randomUUID();
     visible = true;
-    players = new ArrayList<>();
+    players = Sets.newConcurrentHashSet();
     flags = EnumSet.noneOf(BossBarFlag.class);
   }
 
   @Override
   public void addPlayers(Iterable<Player> players) {
     checkNotNull(players, "players");
-    for (Player player : players) {
-      addPlayer(player);
+    List<Player> toAdd = ImmutableList.copyOf(players);
+    // The set of players must change together with the packet being sent, or a player could
+    // miss an update sent by sendPendingUpdates() in between.
+    synchronized (this) {
+      List<Player> added = new ArrayList<>(toAdd.size());
+      for (Player player : toAdd) {
+        if (this.players.add(player)) {
+          added.add(player);
+        }
+      }
+      if (visible) {
+        sendTo(added, addPacket());
+      }
     }
   }
 
   @Override
   public void addPlayer(Player player) {
     checkNotNull(player, "player");
-    if (!players.contains(player)) {
-      players.add(player);
-    }
-    if (player.isActive() && visible) {
-      sendPacket(player, addPacket());
-    }
+    addPlayers(ImmutableList.of(player));
   }
 
   @Override
   public void removePlayer(Player player) {
     checkNotNull(player, "player");
-    players.remove(player);
-    if (player.isActive()) {
-      sendPacket(player, removePacket());
-    }
+    removePlayers(ImmutableList.of(player));
   }
 
   @Override
   public void removePlayers(Iterable<Player> players) {
     checkNotNull(players, "players");
-    for (Player player : players) {
-      removePlayer(player);
+    List<Player> toRemove = ImmutableList.copyOf(players);
+    synchronized (this) {
+      List<Player> removed = new ArrayList<>(toRemove.size());
+      for (Player player : toRemove) {
+        if (this.players.remove(player)) {
+          removed.add(player);
+        }
+      }
+      if (visible) {
+        sendTo(removed, removePacket());
+      }
     }
   }
 
   @Override
-  public void removeAllPlayers() {
+  public synchronized void removeAllPlayers() {
     removePlayers(ImmutableList.copyOf(players));
   }
 
@@ -99,15 +134,9 @@ public class VelocityBossBar implements com.velocitypowered.api.util.bossbar.Bos
   }
 
   @Override
-  public void setTitle(Component title) {
+  public synchronized void setTitle(Component title) {
     this.title = checkNotNull(title, "title");
-    if (visible) {
-      BossBar bar = new BossBar();
-      bar.setUuid(uuid);
-      bar.setAction(BossBar.UPDATE_NAME);
-      bar.setName(GsonComponentSerializer.INSTANCE.serialize(title));
-      sendToAffected(bar);
-    }
+    markDirty(DIRTY_NAME);
   }
 
   @Override
@@ -116,16 +145,10 @@ public class VelocityBossBar implements com.velocitypowered.api.util.bossbar.Bos
   }
 
   @Override
-  public void setPercent(float percent) {
+  public synchronized void setPercent(float percent) {
     checkPercent(percent);
     this.percent = percent;
-    if (visible) {
-      BossBar bar = new BossBar();
-      bar.setUuid(uuid);
-      bar.setAction(BossBar.UPDATE_PERCENT);
-      bar.setPercent(percent);
-      sendToAffected(bar);
-    }
+    markDirty(DIRTY_PERCENT);
   }
 
   private void checkPercent(final float percent) {
@@ -145,11 +168,9 @@ public class VelocityBossBar implements com.velocitypowered.api.util.bossbar.Bos
   }
 
   @Override
-  public void setColor(BossBarColor color) {
+  public synchronized void setColor(BossBarColor color) {
     this.color = checkNotNull(color, "color");
-    if (visible) {
-      sendDivisions(color, overlay);
-    }
+    markDirty(DIRTY_STYLE);
   }
 
   @Override
@@ -158,20 +179,9 @@ public class VelocityBossBar implements com.velocitypowered.api.util.bossbar.Bos
   }
 
   @Override
-  public void setOverlay(BossBarOverlay overlay) {
+  public synchronized void setOverlay(BossBarOverlay overlay) {
     this.overlay = checkNotNull(overlay, "overlay");
-    if (visible) {
-      sendDivisions(color, overlay);
-    }
-  }
-
-  private void sendDivisions(BossBarColor color, BossBarOverlay overlay) {
-    BossBar bar = new BossBar();
-    bar.setUuid(uuid);
-    bar.setAction(BossBar.UPDATE_STYLE);
-    bar.setColor(color.ordinal());
-    bar.setOverlay(overlay.ordinal());
-    sendToAffected(bar);
+    markDirty(DIRTY_STYLE);
   }
 
   @Override
@@ -180,42 +190,97 @@ public class VelocityBossBar implements com.velocitypowered.api.util.bossbar.Bos
   }
 
   @Override
-  public void setVisible(boolean visible) {
+  public synchronized void setVisible(boolean visible) {
     boolean previous = this.visible;
     if (previous && !visible) {
       // The bar is being hidden
-      sendToAffected(removePacket());
+      sendTo(players, removePacket());
     } else if (!previous && visible) {
-      // The bar is being shown
-      sendToAffected(addPacket());
+      // The bar is being shown. The add packet carries the current state of the bar, so any
+      // pending updates are redundant.
+      dirty = 0;
+      sendTo(players, addPacket());
     }
     this.visible = visible;
   }
 
   @Override
-  public Collection<BossBarFlag> getFlags() {
+  public synchronized Collection<BossBarFlag> getFlags() {
     return ImmutableList.copyOf(flags);
   }
 
   @Override
-  public void addFlags(BossBarFlag... flags) {
-    if (this.flags.addAll(Arrays.asList(flags)) && visible) {
-      sendToAffected(updateFlags());
+  public synchronized void addFlags(BossBarFlag... flags) {
+    if (this.flags.addAll(Arrays.asList(flags))) {
+      markDirty(DIRTY_FLAGS);
     }
   }
 
   @Override
-  public void removeFlag(BossBarFlag flag) {
+  public synchronized void removeFlag(BossBarFlag flag) {
     checkNotNull(flag, "flag");
-    if (this.flags.remove(flag) && visible) {
-      sendToAffected(updateFlags());
+    if (this.flags.remove(flag)) {
+      markDirty(DIRTY_FLAGS);
     }
   }
 
   @Override
-  public void removeFlags(BossBarFlag... flags) {
-    if (this.flags.removeAll(Arrays.asList(flags)) && visible) {
-      sendToAffected(updateFlags());
+  public synchronized void removeFlags(BossBarFlag... flags) {
+    if (this.flags.removeAll(Arrays.asList(flags))) {
+      markDirty(DIRTY_FLAGS);
+    }
+  }
+
+  /**
+   * Marks part of the bar as changed, scheduling an update to viewers if one isn't already
+   * pending.
+   *
+   * @param flag the part of the bar that changed
+   */
+  private void markDirty(int flag) {
+    if (!visible) {
+      return;
+    }
+    dirty |= flag;
+    if (!updateScheduled) {
+      updateScheduled = true;
+      updateExecutor.schedule(this::sendPendingUpdates, UPDATE_COALESCE_MILLIS,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private synchronized void sendPendingUpdates() {
+    updateScheduled = false;
+    int pending = dirty;
+    dirty = 0;
+    if (!visible || pending == 0) {
+      return;
+    }
+
+    if ((pending & DIRTY_NAME) != 0) {
+      BossBar bar = new BossBar();
+      bar.setUuid(uuid);
+      bar.setAction(BossBar.UPDATE_NAME);
+      bar.setName(GsonComponentSerializer.INSTANCE.serialize(title));
+      sendTo(players, bar);
+    }
+    if ((pending & DIRTY_PERCENT) != 0) {
+      BossBar bar = new BossBar();
+      bar.setUuid(uuid);
+      bar.setAction(BossBar.UPDATE_PERCENT);
+      bar.setPercent(percent);
+      sendTo(players, bar);
+    }
+    if ((pending & DIRTY_STYLE) != 0) {
+      BossBar bar = new BossBar();
+      bar.setUuid(uuid);
+      bar.setAction(BossBar.UPDATE_STYLE);
+      bar.setColor(color.ordinal());
+      bar.setOverlay(overlay.ordinal());
+      sendTo(players, bar);
+    }
+    if ((pending & DIRTY_FLAGS) != 0) {
+      sendTo(players, updateFlags());
     }
   }
 
@@ -260,17 +325,16 @@ public class VelocityBossBar implements com.velocitypowered.api.util.bossbar.Bos
     return bossBar;
   }
 
-  private void sendToAffected(MinecraftPacket packet) {
-    for (Player player : players) {
+  private void sendTo(Collection<Player> recipients, MinecraftPacket packet) {
+    List<ConnectedPlayer> affected = new ArrayList<>(recipients.size());
+    for (Player player : recipients) {
       if (player.isActive() && player.getProtocolVersion().getProtocol()
           >= ProtocolVersion.MINECRAFT_1_9.getProtocol()) {
-        sendPacket(player, packet);
+        affected.add((ConnectedPlayer) player);
       }
     }
-  }
-
-  private void sendPacket(Player player, MinecraftPacket packet) {
-    ConnectedPlayer connected = (ConnectedPlayer) player;
-    connected.getConnection().write(packet);
+    if (!affected.isEmpty()) {
+      broadcaster.broadcast(affected, packet);
+    }
   }
 }
@@ -6,16 +6,18 @@ import com.google.common.base.Ticker;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import java.net.InetAddress;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
- * A simple rate-limiter based on a Guava {@link Cache}.
+ * A simple rate-limiter based on a Guava {@link Cache}. The cache remembers when each address
+ * last made an allowed attempt.
  */
 public class GuavaCacheRatelimiter implements Ratelimiter {
 
   private final Cache<InetAddress, Long> expiringCache;
   private final long timeoutNanos;
+  private final Ticker ticker;
 
   GuavaCacheRatelimiter(long time, TimeUnit unit) {
     this(time, unit, Ticker.systemTicker());
@@ -26,6 +28,7 @@ public class GuavaCacheRatelimiter implements Ratelimiter {
     Preconditions.checkNotNull(unit, "unit");
     Preconditions.checkNotNull(ticker, "ticker");
     this.timeoutNanos = unit.toNanos(time);
+    this.ticker = ticker;
     this.expiringCache = CacheBuilder.newBuilder()
         .ticker(ticker)
         .concurrencyLevel(Runtime.getRuntime().availableProcessors())
@@ -42,14 +45,27 @@ public class GuavaCacheRatelimiter implements Ratelimiter {
   @Override
   public boolean attempt(InetAddress address) {
     Preconditions.checkNotNull(address, "address");
-    long expectedNewValue = System.nanoTime() + timeoutNanos;
-    long last;
-    try {
-      last = expiringCache.get(address, () -> expectedNewValue);
-    } catch (ExecutionException e) {
-      // It should be impossible for this to fail.
-      throw new AssertionError(e);
+    long now = ticker.read();
+    Long last = expiringCache.asMap().putIfAbsent(address, now);
+    if (last == null) {
+      return true;
+    }
+    // The entry may have been migrated from a limiter with a longer timeout.
+    return now - last >= timeoutNanos && expiringCache.asMap().replace(address, last, now);
+  }
+
+  /**
+   * Copies the attempts remembered by {@code other} into this rate-limiter, so that clients
+   * limited by {@code other} remain limited according to this rate-limiter's timeout.
+   *
+   * @param other the rate-limiter to copy attempts from
+   */
+  void copyAttemptsFrom(GuavaCacheRatelimiter other) {
+    long now = ticker.read();
+    for (Map.Entry<InetAddress, Long> entry : other.expiringCache.asMap().entrySet()) {
+      if (now - entry.getValue() < timeoutNanos) {
+        expiringCache.asMap().putIfAbsent(entry.getKey(), entry.getValue());
+      }
     }
-    return expectedNewValue == last;
   }
 }
@@ -11,4 +11,20 @@ public final class Ratelimiters {
     return ms <= 0 ? NoopCacheRatelimiter.INSTANCE : new GuavaCacheRatelimiter(ms,
         TimeUnit.MILLISECONDS);
   }
+
+  /**
+   * Creates a new rate-limiter with a different timeout, carrying over the attempts remembered by
+   * an existing rate-limiter.
+   *
+   * @param existing the rate-limiter being replaced
+   * @param ms the timeout of the new rate-limiter, in milliseconds
+   * @return the new rate-limiter
+   */
+  public static Ratelimiter migrateWithMilliseconds(Ratelimiter existing, long ms) {
+    Ratelimiter created = createWithMilliseconds(ms);
+    if (existing instanceof GuavaCacheRatelimiter && created instanceof GuavaCacheRatelimiter) {
+      ((GuavaCacheRatelimiter) created).copyAttemptsFrom((GuavaCacheRatelimiter) existing);
+    }
+    return created;
+  }
 }
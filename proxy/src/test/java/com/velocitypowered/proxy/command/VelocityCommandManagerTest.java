@@ -0,0 +1,76 @@
+package com.velocitypowered.proxy.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.velocitypowered.api.command.Command;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.permission.Tristate;
+import com.velocitypowered.proxy.plugin.VelocityEventManager;
+import com.velocitypowered.proxy.testutil.FakePluginManager;
+import net.kyori.text.Component;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+
+class VelocityCommandManagerTest {
+
+  private static final CommandSource SOURCE = new CommandSource() {
+    @Override
+    public void sendMessage(Component component) {
+    }
+
+    @Override
+    public Tristate getPermissionValue(String permission) {
+      return Tristate.TRUE;
+    }
+  };
+
+  private static VelocityCommandManager createManager() {
+    return new VelocityCommandManager(new VelocityEventManager(new FakePluginManager()));
+  }
+
+  @Test
+  void offersRootSuggestionsByPrefix() {
+    VelocityCommandManager manager = createManager();
+    Command command = (source, args) -> { };
+    manager.register("server", command, "srv");
+    manager.register("send", command);
+    manager.register("glist", command);
+
+    assertEquals(ImmutableList.of("/send", "/server"), manager.offerSuggestions(SOURCE, "se"));
+    assertEquals(ImmutableList.of("/send", "/server"), manager.offerSuggestions(SOURCE, "SE"));
+    assertEquals(ImmutableList.of("/glist", "/send", "/server", "/srv"),
+        manager.offerSuggestions(SOURCE, ""));
+    assertEquals(ImmutableList.of(), manager.offerSuggestions(SOURCE, "x"));
+  }
+
+  @Test
+  void respectsPermissionsForRootSuggestions() {
+    VelocityCommandManager manager = createManager();
+    manager.register("hidden", new Command() {
+      @Override
+      public void execute(CommandSource source, String @NonNull [] args) {
+      }
+
+      @Override
+      public boolean hasPermission(CommandSource source, String @NonNull [] args) {
+        return false;
+      }
+    });
+    manager.register("shown", (source, args) -> { });
+
+    assertEquals(ImmutableList.of("/shown"), manager.offerSuggestions(SOURCE, ""));
+  }
+
+  @Test
+  void unregisterRemovesAlias() {
+    VelocityCommandManager manager = createManager();
+    manager.register("server", (source, args) -> { }, "srv");
+    assertTrue(manager.hasCommand("srv"));
+    manager.unregister("SRV");
+    assertFalse(manager.hasCommand("srv"));
+    assertTrue(manager.hasCommand("server"));
+  }
+}
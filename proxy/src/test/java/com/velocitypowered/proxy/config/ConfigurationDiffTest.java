@@ -0,0 +1,103 @@
+package com.velocitypowered.proxy.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationDiffTest {
+
+  private static final String SERVERS = "[servers]\n"
+      + "lobby = \"127.0.0.1:30066\"\n"
+      + "factions = \"127.0.0.1:30067\"\n"
+      + "try = [\"lobby\"]\n";
+
+  private static VelocityConfiguration config(String toml) throws Exception {
+    Path path = Files.createTempFile("velocity", ".toml");
+    try {
+      Files.write(path, toml.getBytes(StandardCharsets.UTF_8));
+      return VelocityConfiguration.read(path);
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  private static ConfigurationDiff diff(String current, String updated) throws Exception {
+    return ConfigurationDiff.compute(config(current), config(updated));
+  }
+
+  @Test
+  void sameConfigurationHasNoChanges() throws Exception {
+    assertTrue(diff(SERVERS, SERVERS).isEmpty());
+  }
+
+  @Test
+  void detectsAddedAndChangedServers() throws Exception {
+    ConfigurationDiff diff = diff(SERVERS, "[servers]\n"
+        + "lobby = \"127.0.0.1:30066\"\n"
+        + "factions = \"127.0.0.1:30070\"\n"
+        + "minigames = \"127.0.0.1:30068\"\n"
+        + "try = [\"lobby\"]\n");
+    assertEquals(ImmutableMap.of("minigames", "127.0.0.1:30068"), diff.getAddedServers());
+    assertEquals(ImmutableMap.of("factions", "127.0.0.1:30070"), diff.getChangedServers());
+    assertFalse(diff.isBindChanged());
+    assertFalse(diff.isEmpty());
+  }
+
+  @Test
+  void ignoresRemovedServers() throws Exception {
+    ConfigurationDiff diff = diff(SERVERS, "[servers]\n"
+        + "lobby = \"127.0.0.1:30066\"\n"
+        + "try = [\"lobby\"]\n");
+    assertTrue(diff.getAddedServers().isEmpty());
+    assertTrue(diff.getChangedServers().isEmpty());
+  }
+
+  @Test
+  void detectsBindChanges() throws Exception {
+    ConfigurationDiff diff = diff("bind = \"0.0.0.0:25577\"\n" + SERVERS,
+        "bind = \"0.0.0.0:25578\"\n" + SERVERS);
+    assertTrue(diff.isBindChanged());
+    assertFalse(diff.isQueryChanged());
+  }
+
+  @Test
+  void detectsQueryChanges() throws Exception {
+    String disabled = SERVERS + "[query]\nenabled = false\nport = 25577\n";
+    String enabled = SERVERS + "[query]\nenabled = true\nport = 25577\n";
+    String otherPort = SERVERS + "[query]\nenabled = true\nport = 25578\n";
+    assertTrue(diff(disabled, enabled).isQueryChanged());
+    assertTrue(diff(enabled, disabled).isQueryChanged());
+    assertTrue(diff(enabled, otherPort).isQueryChanged());
+    // The port of a disabled listener doesn't matter.
+    assertFalse(diff(disabled, SERVERS + "[query]\nenabled = false\nport = 25578\n")
+        .isQueryChanged());
+    // The query handler reads its rate limit whenever it is used, so no rebind is needed.
+    assertFalse(diff(enabled, enabled + "rate-limit = 5\n").isQueryChanged());
+  }
+
+  @Test
+  void detectsRateLimitChanges() throws Exception {
+    ConfigurationDiff login = diff(SERVERS + "[advanced]\nlogin-ratelimit = 3000\n",
+        SERVERS + "[advanced]\nlogin-ratelimit = 1000\n");
+    assertTrue(login.isLoginRatelimitChanged());
+    assertFalse(login.isStatusRatelimitChanged());
+
+    ConfigurationDiff status = diff(SERVERS + "[advanced]\nstatus-ratelimit = 100\n",
+        SERVERS + "[advanced]\nstatus-ratelimit = 500\n");
+    assertTrue(status.isStatusRatelimitChanged());
+    assertFalse(status.isLoginRatelimitChanged());
+  }
+
+  @Test
+  void detectsHealthCheckIntervalChanges() throws Exception {
+    assertTrue(diff(SERVERS + "[advanced]\nserver-health-check-interval = 0\n",
+        SERVERS + "[advanced]\nserver-health-check-interval = 10\n")
+        .isHealthCheckIntervalChanged());
+  }
+}
@@ -0,0 +1,38 @@
+package com.velocitypowered.proxy.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VelocityConfigurationTest {
+
+  private static List<String> sorted(List<String> lines) {
+    List<String> sorted = new ArrayList<>(lines);
+    Collections.sort(sorted);
+    return sorted;
+  }
+
+  @Test
+  void defaultConfigurationReadsBack() throws Exception {
+    Path path = Files.createTempFile("velocity", ".toml");
+    try {
+      Files.delete(path);
+      VelocityConfiguration defaults = VelocityConfiguration.read(path);
+      // Cached values such as the MOTD components must not end up in the file.
+      defaults.getMotdComponent();
+      defaults.getDrainMotdComponent();
+      AnnotatedConfig.saveConfig(defaults.dumpConfig(), path);
+
+      VelocityConfiguration read = VelocityConfiguration.read(path);
+      // Tables backed by maps may come back in a different order.
+      assertEquals(sorted(defaults.dumpConfig()), sorted(read.dumpConfig()));
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+}
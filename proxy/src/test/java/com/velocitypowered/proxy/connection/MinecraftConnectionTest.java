@@ -0,0 +1,149 @@
+package com.velocitypowered.proxy.connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.proxy.network.Connections;
+import com.velocitypowered.proxy.protocol.packet.Chat;
+import com.velocitypowered.proxy.protocol.packet.TitlePacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class MinecraftConnectionTest {
+
+  private static final int HIGH_WATERMARK = 16;
+
+  private static EmbeddedChannel channel() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, HIGH_WATERMARK));
+    // Closing the connection installs a discard handler in front of the decoder.
+    channel.pipeline().addLast(Connections.MINECRAFT_DECODER, new ChannelInboundHandlerAdapter());
+    return channel;
+  }
+
+  private static MinecraftConnection connection(EmbeddedChannel channel) {
+    MinecraftConnection connection = new MinecraftConnection(channel, null);
+    channel.pipeline().addLast(Connections.HANDLER, connection);
+    return connection;
+  }
+
+  /**
+   * Queues more than the high watermark without flushing, so the channel becomes unwritable until
+   * it is flushed.
+   */
+  private static void fillWriteBuffer(MinecraftConnection connection) {
+    connection.delayedWrite(Unpooled.buffer().writeZero(HIGH_WATERMARK + 1));
+    assertFalse(connection.getChannel().isWritable());
+  }
+
+  private static void drainOutbound(EmbeddedChannel channel) {
+    Object msg;
+    while ((msg = channel.readOutbound()) != null) {
+      if (msg instanceof ByteBuf) {
+        ((ByteBuf) msg).release();
+      }
+    }
+  }
+
+  @Test
+  void dropsNonEssentialPacketsOnlyWhileUnwritable() {
+    EmbeddedChannel channel = channel();
+    MinecraftConnection connection = connection(channel);
+    connection.setDropNonEssentialWhenUnwritable(true);
+
+    fillWriteBuffer(connection);
+    Chat chat = new Chat("hello", Chat.CHAT_TYPE);
+    connection.delayedWrite(new TitlePacket());
+    connection.delayedWrite(new Chat("action bar", Chat.GAME_INFO_TYPE));
+    connection.delayedWrite(chat);
+    channel.flush();
+    assertTrue(channel.isWritable());
+
+    ((ByteBuf) channel.readOutbound()).release();
+    assertSame(chat, channel.readOutbound());
+    assertNull(channel.readOutbound());
+
+    // Once the client has caught up, the packets are sent again.
+    TitlePacket title = new TitlePacket();
+    connection.write(title);
+    assertSame(title, channel.readOutbound());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void keepsNonEssentialPacketsWhenDisabled() {
+    EmbeddedChannel channel = channel();
+    MinecraftConnection connection = connection(channel);
+
+    fillWriteBuffer(connection);
+    TitlePacket title = new TitlePacket();
+    connection.delayedWrite(title);
+    channel.flush();
+
+    ((ByteBuf) channel.readOutbound()).release();
+    assertSame(title, channel.readOutbound());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void closesConnectionThatStaysUnwritable() throws Exception {
+    EmbeddedChannel channel = channel();
+    MinecraftConnection connection = connection(channel);
+    connection.setUnwritableTimeout(10);
+
+    fillWriteBuffer(connection);
+    Thread.sleep(20);
+    channel.runScheduledPendingTasks();
+    assertFalse(channel.isOpen());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void keepsConnectionThatCatchesUp() throws Exception {
+    EmbeddedChannel channel = channel();
+    MinecraftConnection connection = connection(channel);
+    connection.setUnwritableTimeout(10);
+
+    fillWriteBuffer(connection);
+    channel.flush();
+    drainOutbound(channel);
+    Thread.sleep(20);
+    channel.runScheduledPendingTasks();
+    assertTrue(channel.isOpen());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void tracksUnwritableTime() throws Exception {
+    EmbeddedChannel channel = channel();
+    MinecraftConnection connection = connection(channel);
+    assertEquals(Duration.ZERO, connection.getUnwritableTime());
+    assertEquals(Duration.ZERO, connection.getCurrentUnwritableTime());
+
+    fillWriteBuffer(connection);
+    Thread.sleep(10);
+    assertTrue(connection.getCurrentUnwritableTime().toMillis() >= 10);
+    channel.flush();
+    drainOutbound(channel);
+
+    Duration first = connection.getUnwritableTime();
+    assertTrue(first.toMillis() >= 10);
+    assertEquals(Duration.ZERO, connection.getCurrentUnwritableTime());
+    // Time spent writable isn't counted.
+    Thread.sleep(10);
+    assertEquals(first, connection.getUnwritableTime());
+
+    fillWriteBuffer(connection);
+    Thread.sleep(10);
+    assertTrue(connection.getUnwritableTime().compareTo(first.plusMillis(10)) >= 0);
+    channel.finishAndReleaseAll();
+  }
+}
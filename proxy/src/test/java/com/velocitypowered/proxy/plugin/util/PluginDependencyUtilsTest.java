@@ -56,6 +56,23 @@ class PluginDependencyUtilsTest {
     assertEquals(expected, PluginDependencyUtils.sortCandidates(plugins));
   }
 
+  @Test
+  void groupByDepth() throws Exception {
+    List<PluginDescription> plugins = PluginDependencyUtils.sortCandidates(ImmutableList.of(
+        HAS_DEPENDENCY_1, HAS_DEPENDENCY_2, HAS_DEPENDENCY_3, NO_DEPENDENCY, NO_DEPENDENCY_2));
+    List<List<PluginDescription>> expected = ImmutableList.of(
+        ImmutableList.of(NO_DEPENDENCY, NO_DEPENDENCY_2),
+        ImmutableList.of(HAS_DEPENDENCY_1, HAS_DEPENDENCY_3),
+        ImmutableList.of(HAS_DEPENDENCY_2));
+    List<List<PluginDescription>> levels = PluginDependencyUtils.groupByDepth(plugins);
+    assertEquals(expected.size(), levels.size());
+    for (int i = 0; i < expected.size(); i++) {
+      List<PluginDescription> level = new ArrayList<>(levels.get(i));
+      level.sort(Comparator.comparing(PluginDescription::getId));
+      assertEquals(expected.get(i), level);
+    }
+  }
+
   @Test
   void sortCandidatesTypical() throws Exception {
     List<PluginDescription> plugins = ImmutableList.of(HAS_DEPENDENCY_2, NO_DEPENDENCY_2,
@@ -0,0 +1,23 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import org.junit.jupiter.api.Test;
+
+class GS4ChallengeTokensTest {
+
+  @Test
+  void challengeTokensExpire() throws Exception {
+    GS4ChallengeTokens tokens = new GS4ChallengeTokens();
+    InetAddress client = InetAddress.getByName("192.0.2.1");
+    long now = 10 * GS4ChallengeTokens.PERIOD_MILLIS;
+    int token = tokens.create(client, now);
+
+    assertTrue(tokens.isValid(client, token, now));
+    assertTrue(tokens.isValid(client, token, now + GS4ChallengeTokens.PERIOD_MILLIS));
+    assertFalse(tokens.isValid(client, token, now + 2 * GS4ChallengeTokens.PERIOD_MILLIS));
+    assertFalse(tokens.isValid(InetAddress.getByName("192.0.2.2"), token, now));
+  }
+}
@@ -0,0 +1,57 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import org.junit.jupiter.api.Test;
+
+class GS4RateLimiterTest {
+
+  private static InetAddress address(String literal) throws UnknownHostException {
+    return InetAddress.getByName(literal);
+  }
+
+  @Test
+  void limitsEachAddressPerSecond() throws Exception {
+    GS4RateLimiter limiter = new GS4RateLimiter(64);
+    InetAddress first = address("192.0.2.1");
+    InetAddress second = address("2001:db8::1");
+
+    assertTrue(limiter.tryAcquire(first, 2, 1000));
+    assertTrue(limiter.tryAcquire(first, 2, 1500));
+    assertFalse(limiter.tryAcquire(first, 2, 1999));
+    assertTrue(limiter.tryAcquire(second, 2, 1999));
+
+    // A new second starts a new count.
+    assertTrue(limiter.tryAcquire(first, 2, 2000));
+  }
+
+  @Test
+  void rejectsWhenTableIsFull() throws Exception {
+    GS4RateLimiter limiter = new GS4RateLimiter(1);
+    assertTrue(limiter.tryAcquire(address("192.0.2.1"), 10, 1000));
+    assertFalse(limiter.tryAcquire(address("192.0.2.2"), 10, 1000));
+    // The slot frees up once the second is over.
+    assertTrue(limiter.tryAcquire(address("192.0.2.2"), 10, 2000));
+  }
+
+  @Test
+  void appliesChangedLimitImmediately() throws Exception {
+    GS4RateLimiter limiter = new GS4RateLimiter(64);
+    InetAddress client = address("192.0.2.1");
+    assertTrue(limiter.tryAcquire(client, 1, 1000));
+    assertFalse(limiter.tryAcquire(client, 1, 1000));
+    // The configuration was reloaded with a higher limit.
+    assertTrue(limiter.tryAcquire(client, 2, 1000));
+  }
+
+  @Test
+  void disabledWithoutLimit() throws Exception {
+    GS4RateLimiter limiter = new GS4RateLimiter(1);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(limiter.tryAcquire(address("192.0.2.1"), 0, 1000));
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.StateRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import org.junit.jupiter.api.Test;
+
+class MinecraftVarintFrameDecoderTest {
+
+  private static ByteBuf frameHeader(int length) {
+    ByteBuf buf = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(buf, length);
+    return buf;
+  }
+
+  @Test
+  void rejectsLargeFramesBeforeLogin() {
+    EmbeddedChannel channel = new EmbeddedChannel(
+        new MinecraftVarintFrameDecoder(ProtocolUtils.Direction.SERVERBOUND));
+    // Only the length is sent, the decoder must not wait for the rest of the frame.
+    assertThrows(DecoderException.class, () -> channel.writeInbound(frameHeader(1024 * 1024)));
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void acceptsLoginPluginResponsesUpToOneMebibyte() {
+    MinecraftVarintFrameDecoder decoder =
+        new MinecraftVarintFrameDecoder(ProtocolUtils.Direction.SERVERBOUND);
+    decoder.setState(StateRegistry.LOGIN);
+    EmbeddedChannel channel = new EmbeddedChannel(decoder);
+
+    // Packet id, message id and success flag, followed by 1MiB of data.
+    int length = 3 + 1024 * 1024;
+    channel.writeInbound(frameHeader(length).writeZero(length));
+    ByteBuf decoded = channel.readInbound();
+    assertEquals(length, decoded.readableBytes());
+    decoded.release();
+
+    assertThrows(DecoderException.class, () -> channel.writeInbound(frameHeader(2 * length)));
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void acceptsLargeFramesWhilePlaying() {
+    MinecraftVarintFrameDecoder decoder =
+        new MinecraftVarintFrameDecoder(ProtocolUtils.Direction.SERVERBOUND);
+    decoder.setState(StateRegistry.PLAY);
+    EmbeddedChannel channel = new EmbeddedChannel(decoder);
+
+    int length = 1024 * 1024;
+    ByteBuf frame = frameHeader(length).writeZero(length);
+    channel.writeInbound(frame);
+    ByteBuf decoded = channel.readInbound();
+    assertEquals(length, decoded.readableBytes());
+    decoded.release();
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void serversMayAlwaysSendLargeFrames() {
+    EmbeddedChannel channel = new EmbeddedChannel(
+        new MinecraftVarintFrameDecoder(ProtocolUtils.Direction.CLIENTBOUND));
+    channel.writeInbound(frameHeader(1024 * 1024));
+    // The frame is incomplete, so nothing comes out yet.
+    assertNull(channel.readInbound());
+    channel.finishAndReleaseAll();
+  }
+}
@@ -0,0 +1,152 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.proxy.config.PacketLimitAction;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.protocol.packet.Chat;
+import com.velocitypowered.proxy.protocol.packet.KeepAlive;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PacketRateLimiterTest {
+
+  private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static PacketRateLimiter limiter(PacketLimitAction action, int all, int chat,
+      PacketRateLimiter.Statistics statistics) {
+    return new PacketRateLimiter(action, all, chat, 0, 0, statistics);
+  }
+
+  private static PacketRateLimiter limiter(int all, int chat) {
+    return limiter(PacketLimitAction.DROP, all, chat, new PacketRateLimiter.Statistics());
+  }
+
+  @Test
+  void bucketHoldsOneSecondOfPackets() {
+    PacketRateLimiter limiter = limiter(10, 0);
+    long now = 1000 * MILLISECOND;
+    for (int i = 0; i < 10; i++) {
+      assertNull(limiter.acquire(null, now));
+    }
+    assertEquals(PacketRateLimiter.Category.ALL, limiter.acquire(null, now));
+
+    // One more token comes back every 100 milliseconds.
+    assertEquals(PacketRateLimiter.Category.ALL, limiter.acquire(null, now + 99 * MILLISECOND));
+    assertNull(limiter.acquire(null, now + 100 * MILLISECOND));
+    assertEquals(PacketRateLimiter.Category.ALL, limiter.acquire(null, now + 100 * MILLISECOND));
+
+    // A long pause refills the bucket, but never beyond one second worth of packets.
+    long later = now + 10_000 * MILLISECOND;
+    for (int i = 0; i < 10; i++) {
+      assertNull(limiter.acquire(null, later));
+    }
+    assertEquals(PacketRateLimiter.Category.ALL, limiter.acquire(null, later));
+  }
+
+  @Test
+  void packetsHaveTheirOwnLimits() {
+    PacketRateLimiter limiter = limiter(100, 2);
+    long now = 1000 * MILLISECOND;
+    assertNull(limiter.acquire(new Chat(), now));
+    assertNull(limiter.acquire(new Chat(), now));
+    assertEquals(PacketRateLimiter.Category.CHAT, limiter.acquire(new Chat(), now));
+    // Other packets are still allowed.
+    assertNull(limiter.acquire(null, now));
+  }
+
+  @Test
+  void keepAlivesAndDisabledLimitsAreNeverLimited() {
+    PacketRateLimiter limiter = limiter(1, 0);
+    long now = 1000 * MILLISECOND;
+    for (int i = 0; i < 100; i++) {
+      assertNull(limiter.acquire(new KeepAlive(), now));
+    }
+
+    PacketRateLimiter disabled = limiter(0, 0);
+    for (int i = 0; i < 100; i++) {
+      assertNull(disabled.acquire(new Chat(), now));
+    }
+  }
+
+  @Test
+  void dropDiscardsPacket() {
+    PacketRateLimiter.Statistics statistics = new PacketRateLimiter.Statistics();
+    PacketRateLimiter limiter = limiter(PacketLimitAction.DROP, 100, 1, statistics);
+    EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    ChannelHandlerContext ctx = channel.pipeline().firstContext();
+
+    assertFalse(limiter.handleViolation(ctx, PacketRateLimiter.Category.CHAT, 0));
+    assertTrue(channel.isOpen());
+    assertTrue(channel.config().isAutoRead());
+    assertEquals(1, statistics.getViolations(PacketRateLimiter.Category.CHAT));
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void dropThrottlesPacketsOverTheOverallLimit() {
+    PacketRateLimiter limiter = limiter(PacketLimitAction.DROP, 1, 0,
+        new PacketRateLimiter.Statistics());
+    EmbeddedChannel channel = new EmbeddedChannel();
+    MinecraftConnection connection = new MinecraftConnection(channel, null);
+    channel.pipeline().addLast(connection);
+    ChannelHandlerContext ctx = channel.pipeline().firstContext();
+
+    long now = System.nanoTime();
+    assertNull(limiter.acquire(null, now));
+    assertEquals(PacketRateLimiter.Category.ALL, limiter.acquire(null, now));
+    // The packet could be a movement or a window click, so it must not be lost.
+    assertTrue(limiter.handleViolation(ctx, PacketRateLimiter.Category.ALL, now));
+    assertTrue(connection.isReadingPaused(MinecraftConnection.ReadPause.RATE_LIMIT));
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void kickClosesConnection() {
+    PacketRateLimiter.Statistics statistics = new PacketRateLimiter.Statistics();
+    PacketRateLimiter limiter = limiter(PacketLimitAction.KICK, 1, 0, statistics);
+    EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    ChannelHandlerContext ctx = channel.pipeline().firstContext();
+
+    assertFalse(limiter.handleViolation(ctx, PacketRateLimiter.Category.CHAT, 0));
+    assertFalse(channel.isOpen());
+    assertFalse(limiter.handleViolation(ctx, PacketRateLimiter.Category.CHAT, 0));
+    assertEquals(2, statistics.getViolations(PacketRateLimiter.Category.CHAT));
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void throttleKeepsOtherReasonsToPauseReading() throws Exception {
+    PacketRateLimiter limiter = limiter(PacketLimitAction.THROTTLE, 1000, 0,
+        new PacketRateLimiter.Statistics());
+    EmbeddedChannel channel = new EmbeddedChannel();
+    MinecraftConnection connection = new MinecraftConnection(channel, null);
+    channel.pipeline().addLast(connection);
+    ChannelHandlerContext ctx = channel.pipeline().firstContext();
+
+    long now = System.nanoTime();
+    PacketRateLimiter.Category exceeded = null;
+    while (exceeded == null) {
+      exceeded = limiter.acquire(null, now);
+    }
+    assertTrue(limiter.handleViolation(ctx, exceeded, now));
+    assertFalse(channel.config().isAutoRead());
+
+    // The server falls behind while the player is throttled.
+    connection.pauseReading(MinecraftConnection.ReadPause.BACKPRESSURE);
+    Thread.sleep(10);
+    channel.runScheduledPendingTasks();
+    assertFalse(connection.isReadingPaused(MinecraftConnection.ReadPause.RATE_LIMIT));
+    assertFalse(channel.config().isAutoRead());
+
+    connection.resumeReading(MinecraftConnection.ReadPause.BACKPRESSURE);
+    assertTrue(channel.config().isAutoRead());
+    channel.finishAndReleaseAll();
+  }
+}
@@ -0,0 +1,48 @@
+package com.velocitypowered.proxy.protocol.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+class ChannelNameTableTest {
+
+  @Test
+  void readsKnownChannels() {
+    ByteBuf buf = Unpooled.buffer();
+    ProtocolUtils.writeString(buf, "REGISTER");
+    ChannelNameTable.Entry entry = ChannelNameTable.read(buf);
+    assertNotNull(entry);
+    assertEquals("REGISTER", entry.getName());
+    assertEquals("minecraft:register", entry.getModernName());
+    assertEquals(PluginMessageRoute.REGISTER, entry.getRoute());
+    assertEquals(0, buf.readableBytes());
+  }
+
+  @Test
+  void leavesUnknownChannelsUnread() {
+    ByteBuf buf = Unpooled.buffer();
+    ProtocolUtils.writeString(buf, "velocity:unknown-test");
+    assertNull(ChannelNameTable.read(buf));
+    assertEquals("velocity:unknown-test", ProtocolUtils.readString(buf));
+  }
+
+  @Test
+  void readsRegisteredChannels() {
+    for (int i = 0; i < 100; i++) {
+      ChannelNameTable.register("velocity:test" + i);
+    }
+    for (int i = 0; i < 100; i++) {
+      ByteBuf buf = Unpooled.buffer();
+      ProtocolUtils.writeString(buf, "velocity:test" + i);
+      ChannelNameTable.Entry entry = ChannelNameTable.read(buf);
+      assertNotNull(entry);
+      assertEquals("velocity:test" + i, entry.getName());
+      assertEquals(PluginMessageRoute.OTHER, entry.getRoute());
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.velocitypowered.proxy.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.proxy.testutil.FakePlayers;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import net.kyori.text.TextComponent;
+import org.junit.jupiter.api.Test;
+
+class PlayerEvacuationTest {
+
+  private final List<Player> disconnected = new ArrayList<>();
+
+  private List<Player> players(int count) {
+    ImmutableList.Builder<Player> players = ImmutableList.builder();
+    for (int i = 0; i < count; i++) {
+      players.add(FakePlayers.create(disconnected::add));
+    }
+    return players.build();
+  }
+
+  @Test
+  void movesAtMostConcurrencyPlayersAtOnce() {
+    List<Player> players = players(5);
+    Queue<CompletableFuture<Boolean>> moving = new ArrayDeque<>();
+    PlayerEvacuation evacuation = new PlayerEvacuation(players, 2, TextComponent.of("failed"),
+        player -> {
+          CompletableFuture<Boolean> move = new CompletableFuture<>();
+          moving.add(move);
+          return move;
+        });
+
+    CompletableFuture<Void> completion = evacuation.start();
+    assertEquals(2, moving.size());
+
+    // Each finished move starts the next one.
+    for (int finished = 1; finished <= 4; finished++) {
+      moving.remove().complete(true);
+      assertTrue(moving.size() <= 2);
+      assertFalse(completion.isDone());
+      assertEquals(5 - finished, evacuation.getRemaining());
+    }
+
+    // The last move fails, so that player is disconnected.
+    assertEquals(1, moving.size());
+    moving.remove().complete(false);
+    assertTrue(completion.isDone());
+    assertEquals(4, evacuation.getMoved());
+    assertEquals(1, evacuation.getDisconnected());
+    assertEquals(ImmutableList.of(players.get(4)), disconnected);
+  }
+
+  @Test
+  void disconnectsPlayersWithNowhereToGo() {
+    List<Player> players = players(3);
+    PlayerEvacuation evacuation = new PlayerEvacuation(players, 1, TextComponent.of("failed"),
+        player -> null);
+
+    assertTrue(evacuation.start().isDone());
+    assertEquals(0, evacuation.getMoved());
+    assertEquals(3, evacuation.getDisconnected());
+    assertEquals(players, disconnected);
+  }
+
+  @Test
+  void skipsPlayersThatAlreadyLeft() {
+    List<Player> players = players(2);
+    players.get(0).disconnect(TextComponent.of("left"));
+    disconnected.clear();
+
+    PlayerEvacuation evacuation = new PlayerEvacuation(players, 1, TextComponent.of("failed"),
+        player -> CompletableFuture.completedFuture(true));
+    assertTrue(evacuation.start().isDone());
+    assertEquals(1, evacuation.getMoved());
+    assertTrue(disconnected.isEmpty());
+  }
+
+  @Test
+  void completesImmediatelyWithoutPlayers() {
+    PlayerEvacuation evacuation = new PlayerEvacuation(ImmutableList.of(), 1,
+        TextComponent.of("failed"), player -> null);
+    assertTrue(evacuation.start().isDone());
+  }
+}
@@ -0,0 +1,91 @@
+package com.velocitypowered.proxy.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.proxy.testutil.FakePlayers;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class VelocityDrainProgressTest {
+
+  private final List<Player> players = new CopyOnWriteArrayList<>();
+  private final AtomicInteger disconnects = new AtomicInteger();
+
+  private Player player() {
+    Player player = FakePlayers.create(disconnected -> {
+      disconnects.incrementAndGet();
+      players.remove(disconnected);
+    });
+    players.add(player);
+    return player;
+  }
+
+  private VelocityDrainProgress drain(Duration timeout) {
+    return new VelocityDrainProgress(() -> players, timeout);
+  }
+
+  @Test
+  void completesOncePlayersLeave() {
+    Player first = player();
+    Player second = player();
+    VelocityDrainProgress progress = drain(Duration.ofMinutes(1));
+    assertEquals(2, progress.getInitialPlayerCount());
+
+    progress.check();
+    assertFalse(progress.isComplete());
+
+    players.remove(first);
+    progress.check();
+    assertFalse(progress.isComplete());
+    assertEquals(1, progress.getRemainingPlayerCount());
+
+    players.remove(second);
+    progress.check();
+    assertTrue(progress.isComplete());
+    assertEquals(0, disconnects.get());
+  }
+
+  @Test
+  void disconnectsRemainingPlayersAtDeadline() {
+    player();
+    player();
+    VelocityDrainProgress progress = drain(Duration.ofMinutes(1));
+
+    progress.disconnectRemaining();
+    assertTrue(progress.isComplete());
+    assertEquals(2, disconnects.get());
+    assertEquals(0, progress.getRemainingPlayerCount());
+
+    // Nothing happens once the drain is complete.
+    player();
+    progress.disconnectRemaining();
+    assertEquals(2, disconnects.get());
+  }
+
+  @Test
+  void keepsPlayersUntilDeadline() throws Exception {
+    player();
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    try {
+      VelocityDrainProgress progress = drain(Duration.ofMillis(200));
+      progress.start(executor);
+      Thread.sleep(50);
+      assertFalse(progress.isComplete());
+      assertEquals(0, disconnects.get());
+
+      progress.getCompletion().get(5, TimeUnit.SECONDS);
+      assertEquals(1, disconnects.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
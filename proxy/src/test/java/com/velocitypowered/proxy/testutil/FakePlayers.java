@@ -0,0 +1,43 @@
+package com.velocitypowered.proxy.testutil;
+
+import com.velocitypowered.api.proxy.Player;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+public final class FakePlayers {
+
+  private FakePlayers() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Creates a player that is active until it is disconnected. Any method other than
+   * {@link Player#isActive()} and the {@code disconnect} methods throws.
+   *
+   * @param onDisconnect called with the player whenever it is disconnected
+   * @return the player
+   */
+  public static Player create(Consumer<Player> onDisconnect) {
+    AtomicBoolean active = new AtomicBoolean(true);
+    return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(),
+        new Class<?>[]{Player.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "isActive":
+              return active.get();
+            case "disconnect":
+              active.set(false);
+              onDisconnect.accept((Player) proxy);
+              return null;
+            case "equals":
+              return proxy == args[0];
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "toString":
+              return "FakePlayer";
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+}
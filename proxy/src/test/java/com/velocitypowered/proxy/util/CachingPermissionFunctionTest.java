@@ -0,0 +1,50 @@
+package com.velocitypowered.proxy.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.velocitypowered.api.permission.Tristate;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CachingPermissionFunctionTest {
+
+  @Test
+  void cachesResults() {
+    AtomicInteger calls = new AtomicInteger();
+    CachingPermissionFunction function = new CachingPermissionFunction(permission -> {
+      calls.incrementAndGet();
+      return permission.equals("velocity.test") ? Tristate.TRUE : Tristate.UNDEFINED;
+    }, 16);
+
+    assertEquals(Tristate.TRUE, function.getPermissionValue("velocity.test"));
+    assertEquals(Tristate.TRUE, function.getPermissionValue("velocity.test"));
+    assertEquals(Tristate.UNDEFINED, function.getPermissionValue("velocity.other"));
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  void invalidateDiscardsResults() {
+    AtomicInteger calls = new AtomicInteger();
+    CachingPermissionFunction function = new CachingPermissionFunction(permission ->
+        calls.incrementAndGet() == 1 ? Tristate.FALSE : Tristate.TRUE, 16);
+
+    assertEquals(Tristate.FALSE, function.getPermissionValue("velocity.test"));
+    function.invalidate();
+    assertEquals(Tristate.TRUE, function.getPermissionValue("velocity.test"));
+  }
+
+  @Test
+  void staysBounded() {
+    AtomicInteger calls = new AtomicInteger();
+    CachingPermissionFunction function = new CachingPermissionFunction(permission -> {
+      calls.incrementAndGet();
+      return Tristate.TRUE;
+    }, 2);
+
+    function.getPermissionValue("a");
+    function.getPermissionValue("b");
+    function.getPermissionValue("c");
+    function.getPermissionValue("a");
+    assertEquals(4, calls.get());
+  }
+}
@@ -35,4 +35,29 @@ class GuavaCacheRatelimiterTest {
     assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
   }
 
+  @Test
+  void copyAttempts() {
+    long base = System.nanoTime();
+    AtomicLong extra = new AtomicLong();
+    Ticker testTicker = new Ticker() {
+      @Override
+      public long read() {
+        return base + extra.get();
+      }
+    };
+    GuavaCacheRatelimiter previous = new GuavaCacheRatelimiter(1000, TimeUnit.MILLISECONDS,
+        testTicker);
+    assertTrue(previous.attempt(InetAddress.getLoopbackAddress()));
+
+    GuavaCacheRatelimiter ratelimiter = new GuavaCacheRatelimiter(3000, TimeUnit.MILLISECONDS,
+        testTicker);
+    extra.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+    ratelimiter.copyAttemptsFrom(previous);
+    assertFalse(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    extra.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    assertFalse(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+    extra.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertTrue(ratelimiter.attempt(InetAddress.getLoopbackAddress()));
+  }
+
 }